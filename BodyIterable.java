@@ -1,6 +0,0 @@
-public interface BodyIterable extends Iterable<Body> {
-
-    // Returns an iterator over elements of type 'Body'.
-    BodyIterator iterator();
-
-}
\ No newline at end of file
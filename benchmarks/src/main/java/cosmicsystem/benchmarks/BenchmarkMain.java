@@ -0,0 +1,19 @@
+package cosmicsystem.benchmarks;
+
+import java.util.Arrays;
+
+// Runs the JMH benchmarks with the GC profiler (allocation rate per operation) enabled,
+// unless other profilers are specified. All JMH options are accepted, e.g.
+// java -jar target/benchmarks.jar SimulationStepBenchmark -p n=1000
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        if (!Arrays.asList(args).contains("-prof")) {
+            String[] withProfiler = Arrays.copyOf(args, args.length + 2);
+            withProfiler[args.length] = "-prof";
+            withProfiler[args.length + 1] = "gc";
+            args = withProfiler;
+        }
+        org.openjdk.jmh.Main.main(args);
+    }
+}
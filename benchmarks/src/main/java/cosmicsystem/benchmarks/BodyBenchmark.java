@@ -0,0 +1,47 @@
+package cosmicsystem.benchmarks;
+
+import cosmicsystem.Body;
+import cosmicsystem.Vector3;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+// The gravitational force of one pair of bodies.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BodyBenchmark {
+
+    private Body sun;
+    private Body earth;
+
+    @Setup
+    public void setUp() {
+        sun = new Body("Sol", 1.989e30, 696340e3, new Vector3(0, 0, 0), new Vector3(0, 0, 0), Color.YELLOW);
+        earth = new Body("Earth", 5.972e24, 6371e3, new Vector3(148e9, 0, 0), new Vector3(0, 29.29e3, 0), Color.BLUE);
+    }
+
+    @Benchmark
+    public Vector3 gravitationalForce() {
+        return earth.gravitationalForce(sun);
+    }
+
+    @Benchmark
+    public Vector3 addGravitationalForce() {
+        earth.resetForce();
+        earth.addGravitationalForce(sun);
+        return earth.getForce();
+    }
+
+    @Benchmark
+    public Vector3 addMutualGravitationalForce() {
+        earth.resetForce();
+        sun.resetForce();
+        earth.addMutualGravitationalForce(sun);
+        return earth.getForce();
+    }
+}
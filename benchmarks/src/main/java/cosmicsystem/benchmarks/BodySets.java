@@ -0,0 +1,105 @@
+package cosmicsystem.benchmarks;
+
+import cosmicsystem.Body;
+import cosmicsystem.ComplexCosmicSystem;
+import cosmicsystem.CosmicSystem;
+import cosmicsystem.Simulation;
+import cosmicsystem.Vector3;
+
+import java.awt.Color;
+import java.util.Random;
+
+// Body sets used by the benchmarks. Every set is reproducible (fixed seed).
+public final class BodySets {
+
+    private BodySets() {}
+
+    // Returns a set of 'n' bodies of the given 'kind' ("random" or "hierarchical").
+    public static ComplexCosmicSystem create(String kind, int n) {
+        if (kind.equals("random")) {
+            return random(n, 42);
+        }
+        if (kind.equals("hierarchical")) {
+            return hierarchical(n, 42);
+        }
+        throw new IllegalArgumentException("Unknown body set: " + kind);
+    }
+
+    // 'n' bodies with random masses, uniformly distributed in a sphere with a radius of 2 AU and
+    // at rest. They are split into subsystems of at most 1000 bodies, because adding to a
+    // ComplexCosmicSystem walks its whole list.
+    public static ComplexCosmicSystem random(int n, long seed) {
+        Random random = new Random(seed);
+        ComplexCosmicSystem system = new ComplexCosmicSystem("Random");
+        ComplexCosmicSystem chunk = null;
+        for (int i = 0; i < n; i++) {
+            if (i % 1000 == 0) {
+                chunk = new ComplexCosmicSystem("Random-" + (i / 1000));
+                system.add(chunk);
+            }
+            double x, y, z;
+            do {
+                x = 2 * random.nextDouble() - 1;
+                y = 2 * random.nextDouble() - 1;
+                z = 2 * random.nextDouble() - 1;
+            } while (x * x + y * y + z * z > 1);
+            double r = 2 * Simulation.AU;
+            chunk.add(new Body("Body-" + i, 1e20 + random.nextDouble() * 1e25, 1e6 + random.nextDouble() * 1e7,
+                    new Vector3(x * r, y * r, z * r), new Vector3(0, 0, 0), Color.WHITE));
+        }
+        return system;
+    }
+
+    // A star with about sqrt(n) planets on circular orbits, each planet with its moons in its
+    // own subsystem ("Planet-k System"), 'n' bodies altogether.
+    public static ComplexCosmicSystem hierarchical(int n, long seed) {
+        Random random = new Random(seed);
+        double starMass = 1.989e30;
+        ComplexCosmicSystem system = new ComplexCosmicSystem("Star System");
+        system.add(new Body("Star", starMass, 696340e3, new Vector3(0, 0, 0), new Vector3(0, 0, 0), Color.YELLOW));
+
+        int planets = Math.max(1, (int) Math.sqrt(n - 1));
+        int remaining = n - 1;
+        for (int p = 0; p < planets && remaining > 0; p++) {
+            int size = Math.max(1, remaining / (planets - p)); // planet and its moons
+            remaining -= size;
+
+            double distance = (0.3 + 5 * random.nextDouble()) * Simulation.AU;
+            double angle = 2 * Math.PI * random.nextDouble();
+            double speed = Math.sqrt(Simulation.G * starMass / distance);
+            double planetMass = 1e23 + random.nextDouble() * 1e27;
+            Vector3 position = new Vector3(distance * Math.cos(angle), distance * Math.sin(angle), 0);
+            Vector3 movement = new Vector3(-speed * Math.sin(angle), speed * Math.cos(angle), 0);
+
+            ComplexCosmicSystem planetSystem = new ComplexCosmicSystem("Planet-" + p + " System");
+            planetSystem.add(new Body("Planet-" + p, planetMass, 1e7, position, movement, Color.BLUE));
+            for (int m = 1; m < size; m++) {
+                double moonDistance = (1e8 + random.nextDouble() * 2e9);
+                double moonAngle = 2 * Math.PI * random.nextDouble();
+                double moonSpeed = Math.sqrt(Simulation.G * planetMass / moonDistance);
+                planetSystem.add(new Body("Moon-" + p + "-" + m, 1e16 + random.nextDouble() * 1e22, 1e5,
+                        new Vector3(position.getX() + moonDistance * Math.cos(moonAngle),
+                                position.getY() + moonDistance * Math.sin(moonAngle), 0),
+                        new Vector3(movement.getX() - moonSpeed * Math.sin(moonAngle),
+                                movement.getY() + moonSpeed * Math.cos(moonAngle), 0),
+                        Color.GRAY));
+            }
+            system.add(planetSystem);
+        }
+        return system;
+    }
+
+    // Returns the bodies of 'system' grouped into linked-list systems of at most 'size' bodies,
+    // e.g. for indexing them with a 'CosmicSystemTree'.
+    public static CosmicSystem[] flatSystems(ComplexCosmicSystem system, int size) {
+        Body[] bodies = Simulation.toArray(system);
+        CosmicSystem[] result = new CosmicSystem[(bodies.length + size - 1) / size];
+        for (int i = 0; i < bodies.length; i++) {
+            if (i % size == 0) {
+                result[i / size] = new CosmicSystem("System-" + (i / size));
+            }
+            result[i / size].add(bodies[i]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,78 @@
+package cosmicsystem.benchmarks;
+
+import cosmicsystem.Body;
+import cosmicsystem.ComplexCosmicSystem;
+import cosmicsystem.Vector3;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+// Traversing a nested system and computing its aggregates.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ComplexCosmicSystemBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int n;
+
+    @Param({"random", "hierarchical"})
+    public String bodies;
+
+    private ComplexCosmicSystem system;
+    private Body[] members;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        system = BodySets.create(bodies, n);
+        members = new Body[system.numberOfBodies()];
+        int i = 0;
+        for (Body body : system) {
+            members[i++] = body;
+        }
+    }
+
+    @Benchmark
+    public double iterate() {
+        double mass = 0;
+        for (Body body : system) {
+            mass += body.getMass();
+        }
+        return mass;
+    }
+
+    @Benchmark
+    public double forEachBody() {
+        double[] mass = {0};
+        system.forEachBody(body -> mass[0] += body.getMass());
+        return mass[0];
+    }
+
+    @Benchmark
+    public double parallelStream() {
+        return StreamSupport.stream(system.spliterator(), true).mapToDouble(Body::getMass).sum();
+    }
+
+    @Benchmark
+    public Vector3 getMassCenter() {
+        return system.getMassCenter();
+    }
+
+    // Moving one body invalidates only the cached mass centers on its path to the root.
+    @Benchmark
+    public Vector3 moveOneAndGetMassCenter() {
+        next = (next + 1) % members.length;
+        members[next].setPosition(members[next].getPosition());
+        return system.getMassCenter();
+    }
+
+    @Benchmark
+    public int numberOfBodies() {
+        return system.numberOfBodies();
+    }
+}
@@ -0,0 +1,54 @@
+package cosmicsystem.benchmarks;
+
+import cosmicsystem.Body;
+import cosmicsystem.BodyComparator;
+import cosmicsystem.ComplexCosmicSystem;
+import cosmicsystem.CosmicSystemIndexTree;
+import cosmicsystem.Simulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Building and querying the binary search tree index (ordered by name).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CosmicSystemIndexTreeBenchmark {
+
+    static final BodyComparator BY_NAME = (b1, b2) -> b1.getName().compareTo(b2.getName());
+
+    @Param({"100", "1000", "10000"})
+    public int n;
+
+    @Param({"random", "hierarchical"})
+    public String bodies;
+
+    private ComplexCosmicSystem system;
+    private CosmicSystemIndexTree tree;
+    private Body[] keys;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        system = BodySets.create(bodies, n);
+        tree = new CosmicSystemIndexTree(BY_NAME);
+        tree.add(system);
+        keys = Simulation.toArray(system);
+    }
+
+    @Benchmark
+    public CosmicSystemIndexTree add() {
+        CosmicSystemIndexTree index = new CosmicSystemIndexTree(BY_NAME);
+        index.add(system);
+        return index;
+    }
+
+    @Benchmark
+    public ComplexCosmicSystem getParent() {
+        next = (next + 1) % keys.length;
+        return tree.getParent(keys[next]);
+    }
+}
@@ -0,0 +1,60 @@
+package cosmicsystem.benchmarks;
+
+import cosmicsystem.Body;
+import cosmicsystem.ComplexCosmicSystem;
+import cosmicsystem.CosmicSystemMap;
+import cosmicsystem.Simulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Lookups and updates of the hash map index.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CosmicSystemMapBenchmark {
+
+    @Param({"60", "1000", "10000"})
+    public int n;
+
+    @Param({"random", "hierarchical"})
+    public String bodies;
+
+    private ComplexCosmicSystem system;
+    private CosmicSystemMap map;
+    private Body[] keys;
+    private ComplexCosmicSystem[] values;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        system = BodySets.create(bodies, n);
+        map = new CosmicSystemMap(system);
+        keys = Simulation.toArray(system);
+        values = new ComplexCosmicSystem[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = system.getParent(keys[i]);
+        }
+    }
+
+    @Benchmark
+    public ComplexCosmicSystem get() {
+        next = (next + 1) % keys.length;
+        return map.get(keys[next]);
+    }
+
+    @Benchmark
+    public CosmicSystemMap put() {
+        next = (next + 1) % keys.length;
+        map.put(keys[next], values[next]);
+        return map;
+    }
+
+    @Benchmark
+    public CosmicSystemMap build() {
+        return new CosmicSystemMap(system);
+    }
+}
@@ -0,0 +1,75 @@
+package cosmicsystem.benchmarks;
+
+import cosmicsystem.Body;
+import cosmicsystem.ComplexCosmicSystem;
+import cosmicsystem.CosmicSystemOctree;
+import cosmicsystem.Simulation;
+import cosmicsystem.Vector3;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Spatial queries on the octree index, compared with a scan over all bodies, and updating
+// the index after all bodies moved a little.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CosmicSystemOctreeBenchmark {
+
+    static final double RADIUS = 0.1 * Simulation.AU;
+
+    @Param({"1000", "10000", "100000"})
+    public int n;
+
+    @Param({"random", "hierarchical"})
+    public String bodies;
+
+    private CosmicSystemOctree index;
+    private Body[] all;
+    private int next;
+    private final Vector3 step = new Vector3(1e6, 0, 0);
+
+    @Setup
+    public void setUp() {
+        ComplexCosmicSystem system = BodySets.create(bodies, n);
+        index = new CosmicSystemOctree(system);
+        all = Simulation.toArray(system);
+    }
+
+    @Benchmark
+    public Body[] withinRadius() {
+        next = (next + 1) % all.length;
+        return index.withinRadius(all[next].getPosition(), RADIUS);
+    }
+
+    @Benchmark
+    public int scanRadius() {
+        next = (next + 1) % all.length;
+        Vector3 center = all[next].getPosition();
+        int count = 0;
+        for (Body body : all) {
+            if (body.getPosition().distanceTo(center) <= RADIUS) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public Body[] nearest() {
+        next = (next + 1) % all.length;
+        return index.nearest(all[next].getPosition(), 8);
+    }
+
+    @Benchmark
+    public CosmicSystemOctree update() {
+        for (Body body : all) {
+            body.setPosition(body.getPosition().add(step));
+        }
+        index.update();
+        return index;
+    }
+}
@@ -0,0 +1,66 @@
+package cosmicsystem.benchmarks;
+
+import cosmicsystem.Body;
+import cosmicsystem.CosmicSystem;
+import cosmicsystem.CosmicSystemTree;
+import cosmicsystem.Simulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Name lookups in the binary search tree of linked-list systems, and building the tree.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CosmicSystemTreeBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int n;
+
+    @Param({"random", "hierarchical"})
+    public String bodies;
+
+    private CosmicSystem[] systems;
+    private CosmicSystemTree tree;
+    private String[] names;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        systems = BodySets.flatSystems(BodySets.create(bodies, n), 50);
+        tree = new CosmicSystemTree(null, null);
+        for (CosmicSystem system : systems) {
+            tree.add(system);
+        }
+        Body[] all = Simulation.toArray(BodySets.create(bodies, n));
+        names = new String[all.length];
+        for (int i = 0; i < all.length; i++) {
+            names[i] = all[i].getName();
+        }
+    }
+
+    @Benchmark
+    public CosmicSystem get() {
+        next = (next + 1) % names.length;
+        return tree.get(names[next]);
+    }
+
+    @Benchmark
+    public CosmicSystemTree add() {
+        CosmicSystemTree result = new CosmicSystemTree(null, null);
+        for (CosmicSystem system : systems) {
+            result.add(system);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public CosmicSystemTree addAll() {
+        CosmicSystemTree result = new CosmicSystemTree(null, null);
+        result.addAll(systems);
+        return result;
+    }
+}
@@ -0,0 +1,50 @@
+package cosmicsystem.benchmarks;
+
+import cosmicsystem.ComplexCosmicSystem;
+import cosmicsystem.ForceEngine;
+import cosmicsystem.Simulation;
+import cosmicsystem.SimulationRunner;
+import cosmicsystem.SymplecticEulerIntegrator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// One simulation step (force and move phase) for N = 10 ... 100k bodies.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimulationStepBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int n;
+
+    @Param({"random", "hierarchical"})
+    public String bodies;
+
+    // arguments of 'Simulation.forceEngine'.
+    @Param({"--engine=direct", "--engine=direct --symmetric", "--engine=barnes-hut", "--engine=hierarchical"})
+    public String engine;
+
+    // moves the 'Body' objects (false) or a packed 'BodyStore' (true).
+    @Param({"false", "true"})
+    public boolean packed;
+
+    private SimulationRunner runner;
+
+    @Setup
+    public void setUp() {
+        ComplexCosmicSystem system = BodySets.create(bodies, n);
+        ForceEngine forceEngine = Simulation.forceEngine(engine.split(" "), system);
+        runner = new SimulationRunner(Simulation.toArray(system), forceEngine,
+                new SymplecticEulerIntegrator(), 1, packed);
+    }
+
+    @Benchmark
+    public double step() {
+        runner.step();
+        return runner.getSeconds();
+    }
+}
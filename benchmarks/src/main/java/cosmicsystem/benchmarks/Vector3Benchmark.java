@@ -0,0 +1,52 @@
+package cosmicsystem.benchmarks;
+
+import cosmicsystem.Vector3;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Vector3 arithmetic: the allocating methods (plus, minus, times) against the in-place ones.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Vector3Benchmark {
+
+    private Vector3 a;
+    private Vector3 b;
+    private Vector3 sum;
+
+    @Setup
+    public void setUp() {
+        a = new Vector3(1.48e11, 2.1e10, -3.3e9);
+        b = new Vector3(-4.6e10, 7.7e9, 1.2e8);
+        sum = new Vector3(0, 0, 0);
+    }
+
+    @Benchmark
+    public Vector3 plusMinusTimes() {
+        return a.plus(b).minus(a.times(0.5)).times(2);
+    }
+
+    @Benchmark
+    public Vector3 addScaled() {
+        return sum.set(a).addScaled(b, 2).addScaled(a, -1);
+    }
+
+    @Benchmark
+    public double length() {
+        return a.length();
+    }
+
+    @Benchmark
+    public double distanceTo() {
+        return a.distanceTo(b);
+    }
+
+    @Benchmark
+    public Vector3 normalize() {
+        return sum.set(a).scale(1 / sum.length());
+    }
+}
@@ -0,0 +1,174 @@
+package cosmicsystem;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+public class BalancedSystem implements Cluster {
+
+    private Cluster left;
+    private Cluster right;
+
+    //the constructor should throw a BalancedSystemIllegalArgumentException (to be implemented), if one of the arguments is null
+    BalancedSystem(Cluster left, Cluster right) throws BalancedSystemIllegalArgumentException, IOException {
+        if (left == null || right == null) {throw new BalancedSystemIllegalArgumentException();}
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    //adds a Body b to the BalancedSystem. If the mass of the left cluster is less than the mass of the right cluster,
+    //the body is added to the left cluster, otherwise to the right cluster.
+    //Returns this after the operation
+    public Cluster add(Body b) throws IOException, BalancedSystemIllegalArgumentException {
+        if (left.getMass() > right.getMass()) {right = right.add(b);}
+        else {left = left.add(b);}
+        return this;
+    }
+
+    @Override
+    //returns overall number of bodies in the cluster (ans its sub-clusters)
+    public int numberOfBodies() {
+        return left.numberOfBodies() + right.numberOfBodies();
+    }
+
+    @Override
+    //returns the summed mass of all the bodies in the cluster (ans its sub-clusters)
+    public double getMass() {
+        return left.getMass() + right.getMass();
+    }
+
+    @Override
+    //returns an iterator over all bodies
+    public BodyIterator iterator() {
+        return new myIterator(this);
+    }
+
+    @Override
+    //returns a String indicating the masses of the left and right subsystem
+    //E.g., "Left mass: 10.0, right mass: 12.0
+    public String toString() {
+        return "Left mass: " + left.getMass() + ", right mass: " + right.getMass();
+    }
+
+    @Override
+    //calls 'action' for every body (left before right), without creating iterators
+    public void forEachBody(Consumer<Body> action) {
+        Cluster[] stack = new Cluster[16];
+        int depth = 0;
+        stack[depth++] = this;
+        while (depth > 0) {
+            Cluster c = stack[--depth];
+            if (c instanceof BalancedSystem) {
+                if (depth + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, 2 * stack.length);
+                }
+                stack[depth++] = ((BalancedSystem) c).right;
+                stack[depth++] = ((BalancedSystem) c).left;
+            } else {
+                c.forEachBody(action);
+            }
+        }
+    }
+
+    @Override
+    //returns a spliterator which splits into the left and the right cluster
+    public Spliterator<Body> spliterator() {
+        return new mySpliterator(this);
+    }
+
+    //covers the bodies of 'cluster'; a balanced system is split into its left and right cluster
+    //(the sizes are exact, but counting them takes time proportional to the size of the cluster)
+    private static class mySpliterator implements Spliterator<Body> {
+        private Cluster cluster;
+        private BodyIterator iterator; //set when the traversal has started
+        private long size;
+
+        mySpliterator(Cluster cluster) {
+            this.cluster = cluster;
+            this.size = cluster.numberOfBodies();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Body> action) {
+            if (iterator == null) {
+                iterator = cluster.iterator();
+            }
+            if (size == 0) {
+                return false;
+            }
+            size--;
+            action.accept(iterator.next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Body> action) {
+            if (iterator == null) {
+                cluster.forEachBody(action::accept);
+                size = 0;
+            } else {
+                while (tryAdvance(action)) {}
+            }
+        }
+
+        @Override
+        public Spliterator<Body> trySplit() {
+            if (iterator != null || !(cluster instanceof BalancedSystem)) {
+                return null;
+            }
+            BalancedSystem system = (BalancedSystem) cluster;
+            mySpliterator prefix = new mySpliterator(system.left);
+            cluster = system.right;
+            size -= prefix.size;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return size;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL;
+        }
+    }
+
+    //depth-first iterator with an explicit stack of the clusters which are still to be visited
+    //(a balanced system is never empty, so the iteration has more elements as long as the stack is not empty)
+    public class myIterator implements BodyIterator {
+        private Cluster[] stack = new Cluster[8];
+        private int depth;
+
+        public myIterator (BalancedSystem system) {
+            stack[depth++] = system.right;
+            stack[depth++] = system.left;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return depth > 0;
+        }
+
+        @Override
+        public Body next() {
+            if (!hasNext()) {throw new NoSuchElementException();}
+            Cluster c = stack[--depth];
+            while (c instanceof BalancedSystem) {
+                if (depth + 1 > stack.length) {
+                    stack = Arrays.copyOf(stack, 2 * stack.length);
+                }
+                stack[depth++] = ((BalancedSystem) c).right;
+                c = ((BalancedSystem) c).left;
+            }
+            return (Body) c;
+        }
+
+        @Override
+        public void remove() {}
+
+    }
+}
\ No newline at end of file
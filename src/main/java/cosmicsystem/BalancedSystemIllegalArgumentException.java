@@ -1,3 +1,5 @@
+package cosmicsystem;
+
 public class BalancedSystemIllegalArgumentException extends Exception {
 
     public BalancedSystemIllegalArgumentException() {
@@ -0,0 +1,77 @@
+package cosmicsystem;
+
+// Approximates the forces with the Barnes-Hut algorithm (O(N log N)): an octree is built
+// over the body positions in every step, and a cell of the tree whose size divided by its
+// distance to a body is less than the opening angle 'theta' acts on the body as a single
+// point mass at the mass center of the cell.
+// theta = 0 opens every cell and gives the same result as the direct sum; larger values
+// are faster and less accurate (0.5 is a common choice).
+public class BarnesHutForceEngine implements ForceEngine {
+
+    private final double theta;
+    private final BarnesHutTree tree = new BarnesHutTree();
+
+    private double[] x = new double[0], y = new double[0], z = new double[0], m = new double[0];
+    private double[] ax = new double[0], ay = new double[0], az = new double[0];
+
+    public BarnesHutForceEngine(double theta) {
+        if (theta < 0) {
+            throw new IllegalArgumentException("theta must not be negative: " + theta);
+        }
+        this.theta = theta;
+    }
+
+    public double getTheta() {
+        return theta;
+    }
+
+    public void computeForces(Body[] bodies) {
+        int n = bodies.length;
+        if (x.length < n) {
+            x = new double[n];
+            y = new double[n];
+            z = new double[n];
+            m = new double[n];
+            ax = new double[n];
+            ay = new double[n];
+            az = new double[n];
+        }
+        for (int i = 0; i < n; i++) {
+            Vector3 position = bodies[i].getPosition();
+            x[i] = position.getX();
+            y[i] = position.getY();
+            z[i] = position.getZ();
+            m[i] = bodies[i].getMass();
+        }
+
+        tree.build(x, y, z, m, n);
+
+        for (int i = 0; i < n; i++) {
+            ax[i] = ay[i] = az[i] = 0;
+            tree.accelerationOn(i, theta, ax, ay, az);
+            // F = m*a
+            bodies[i].getForce().set(ax[i] * m[i], ay[i] * m[i], az[i] * m[i]);
+        }
+    }
+
+    public void computeAccelerations(BodyStore store) {
+        tree.build(store.x, store.y, store.z, store.mass, store.n);
+        store.clearAccelerations();
+        for (int i = 0; i < store.n; i++) {
+            tree.accelerationOn(i, theta, store.ax, store.ay, store.az);
+        }
+    }
+
+    public void computeAccelerations(BodyStore store, int[] targets, int count) {
+        tree.build(store.x, store.y, store.z, store.mass, store.n);
+        for (int k = 0; k < count; k++) {
+            int i = targets[k];
+            store.ax[i] = store.ay[i] = store.az[i] = 0;
+            tree.accelerationOn(i, theta, store.ax, store.ay, store.az);
+        }
+    }
+
+    public String toString() {
+        return "barnes-hut (theta = " + theta + ")";
+    }
+}
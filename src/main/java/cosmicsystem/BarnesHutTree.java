@@ -0,0 +1,278 @@
+package cosmicsystem;
+
+// An octree over the positions of a set of bodies, used by 'BarnesHutForceEngine'.
+// Every cell stores the overall mass and the mass center of the bodies inside it, so that
+// a cell which is far away from a body can act on it as a single point mass.
+//
+// The tree works on plain coordinate arrays (index i stands for the i-th body) and keeps
+// its cells in a pool, so rebuilding it every simulation step does not allocate new cells
+// once the pool is large enough.
+public class BarnesHutTree {
+
+    // Bodies closer together than the size of a cell at this depth share a leaf instead of
+    // being split any further (e.g. two bodies at the very same position).
+    private static final int MAX_DEPTH = 48;
+
+    private OctreeCell[] pool = new OctreeCell[64];
+    private int used;
+    private OctreeCell root;
+
+    private double[] x, y, z, m;
+    // next body in the same leaf cell, -1 at the end of the chain.
+    private int[] nextInCell = new int[0];
+    // explicit stack for the traversal in 'accelerationOn'.
+    private OctreeCell[] stack = new OctreeCell[64];
+
+    // Rebuilds the tree from the positions 'x', 'y', 'z' and masses 'm' of the first 'n' bodies.
+    // The arrays are referenced (not copied) until the next call of 'build'.
+    public void build(double[] x, double[] y, double[] z, double[] m, int n) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.m = m;
+        if (nextInCell.length < n) {
+            nextInCell = new int[n];
+        }
+        used = 0;
+        root = null;
+        if (n == 0) {
+            return;
+        }
+
+        double minX = x[0], minY = y[0], minZ = z[0];
+        double maxX = minX, maxY = minY, maxZ = minZ;
+        for (int i = 1; i < n; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            minZ = Math.min(minZ, z[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+            maxZ = Math.max(maxZ, z[i]);
+        }
+        double half = Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ)) / 2;
+        if (half == 0) {
+            half = 1;
+        }
+        // slightly enlarged, so bodies on the boundary are inside the root cell.
+        root = newCell((minX + maxX) / 2, (minY + maxY) / 2, (minZ + maxZ) / 2, half * 1.0001);
+
+        for (int i = 0; i < n; i++) {
+            insert(i);
+        }
+        root.aggregate(x, y, z, m, nextInCell);
+    }
+
+    // Returns the root cell, or 'null' if the tree is empty.
+    public OctreeCell getRoot() {
+        return root;
+    }
+
+    // Adds the gravitational acceleration exerted on body 'i' by all other bodies to
+    // 'ax[i]', 'ay[i]' and 'az[i]'. A cell is used as a single point mass if its size
+    // divided by its distance to the body is less than 'theta'.
+    public void accelerationOn(int i, double theta, double[] ax, double[] ay, double[] az) {
+        if (root == null) {
+            return;
+        }
+        double px = x[i], py = y[i], pz = z[i];
+        double theta2 = theta * theta;
+        double sumX = 0, sumY = 0, sumZ = 0;
+
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            OctreeCell cell = stack[--top];
+            if (cell.isLeaf()) {
+                for (int j = cell.firstBody; j != -1; j = nextInCell[j]) {
+                    if (j == i) continue;
+                    double dx = x[j] - px, dy = y[j] - py, dz = z[j] - pz;
+                    double d2 = dx * dx + dy * dy + dz * dz;
+                    if (d2 == 0) continue;
+                    double s = Simulation.G * m[j] / (d2 * Math.sqrt(d2));
+                    sumX += dx * s;
+                    sumY += dy * s;
+                    sumZ += dz * s;
+                }
+                continue;
+            }
+            double dx = cell.massX - px, dy = cell.massY - py, dz = cell.massZ - pz;
+            double d2 = dx * dx + dy * dy + dz * dz;
+            double size = 2 * cell.half;
+            if (size * size < theta2 * d2 && !cell.encloses(px, py, pz)) {
+                double s = Simulation.G * cell.mass / (d2 * Math.sqrt(d2));
+                sumX += dx * s;
+                sumY += dy * s;
+                sumZ += dz * s;
+            } else {
+                if (stack.length < top + 8) {
+                    OctreeCell[] larger = new OctreeCell[stack.length * 2];
+                    System.arraycopy(stack, 0, larger, 0, top);
+                    stack = larger;
+                }
+                for (OctreeCell child : cell.children) {
+                    if (child != null) {
+                        stack[top++] = child;
+                    }
+                }
+            }
+        }
+        ax[i] += sumX;
+        ay[i] += sumY;
+        az[i] += sumZ;
+    }
+
+    // Inserts body 'i' below the root (iteratively, the depth of the tree is not limited by the call stack).
+    private void insert(int i) {
+        OctreeCell cell = root;
+        int depth = 0;
+        while (true) {
+            if (cell.isLeaf()) {
+                if (cell.firstBody == -1) {
+                    cell.firstBody = i;
+                    nextInCell[i] = -1;
+                    return;
+                }
+                if (depth >= MAX_DEPTH) {
+                    nextInCell[i] = cell.firstBody;
+                    cell.firstBody = i;
+                    return;
+                }
+                // split the leaf: its single body moves one level down.
+                int j = cell.firstBody;
+                cell.firstBody = -1;
+                cell.split();
+                OctreeCell child = childFor(cell, x[j], y[j], z[j]);
+                child.firstBody = j;
+                nextInCell[j] = -1;
+            }
+            cell = childFor(cell, x[i], y[i], z[i]);
+            depth++;
+        }
+    }
+
+    // Returns the child of 'cell' containing the point (px, py, pz), creating it if necessary.
+    private OctreeCell childFor(OctreeCell cell, double px, double py, double pz) {
+        int octant = (px >= cell.centerX ? 1 : 0) | (py >= cell.centerY ? 2 : 0) | (pz >= cell.centerZ ? 4 : 0);
+        OctreeCell child = cell.children[octant];
+        if (child == null) {
+            double q = cell.half / 2;
+            child = newCell(cell.centerX + ((octant & 1) != 0 ? q : -q),
+                    cell.centerY + ((octant & 2) != 0 ? q : -q),
+                    cell.centerZ + ((octant & 4) != 0 ? q : -q), q);
+            cell.children[octant] = child;
+        }
+        return child;
+    }
+
+    private OctreeCell newCell(double cx, double cy, double cz, double half) {
+        if (used == pool.length) {
+            OctreeCell[] larger = new OctreeCell[pool.length * 2];
+            System.arraycopy(pool, 0, larger, 0, used);
+            pool = larger;
+        }
+        OctreeCell cell = pool[used];
+        if (cell == null) {
+            cell = new OctreeCell();
+            pool[used] = cell;
+        }
+        used++;
+        cell.reset(cx, cy, cz, half);
+        return cell;
+    }
+
+    // Returns the number of cells of the tree.
+    public int numberOfCells() {
+        return used;
+    }
+}
+
+// A cube of the 'BarnesHutTree'. A leaf holds a chain of bodies (usually a single one),
+// an inner cell holds up to eight children.
+class OctreeCell implements CosmicComponent {
+
+    double centerX, centerY, centerZ; // geometric center of the cube.
+    double half; // half of the edge length.
+
+    double mass;
+    double massX, massY, massZ; // mass center.
+
+    int firstBody;
+    int numberOfBodies;
+    final OctreeCell[] children = new OctreeCell[8];
+    private boolean split;
+
+    void reset(double cx, double cy, double cz, double half) {
+        this.centerX = cx;
+        this.centerY = cy;
+        this.centerZ = cz;
+        this.half = half;
+        this.mass = 0;
+        this.massX = this.massY = this.massZ = 0;
+        this.firstBody = -1;
+        this.numberOfBodies = 0;
+        this.split = false;
+        java.util.Arrays.fill(children, null);
+    }
+
+    void split() {
+        split = true;
+    }
+
+    boolean isLeaf() {
+        return !split;
+    }
+
+    boolean encloses(double px, double py, double pz) {
+        return Math.abs(px - centerX) <= half && Math.abs(py - centerY) <= half && Math.abs(pz - centerZ) <= half;
+    }
+
+    // Computes mass, mass center and number of bodies of this cell and all cells below it.
+    void aggregate(double[] x, double[] y, double[] z, double[] m, int[] nextInCell) {
+        double total = 0, sx = 0, sy = 0, sz = 0;
+        int count = 0;
+        if (isLeaf()) {
+            for (int j = firstBody; j != -1; j = nextInCell[j]) {
+                total += m[j];
+                sx += x[j] * m[j];
+                sy += y[j] * m[j];
+                sz += z[j] * m[j];
+                count++;
+            }
+        } else {
+            for (OctreeCell child : children) {
+                if (child == null) continue;
+                child.aggregate(x, y, z, m, nextInCell);
+                total += child.mass;
+                sx += child.massX * child.mass;
+                sy += child.massY * child.mass;
+                sz += child.massZ * child.mass;
+                count += child.numberOfBodies;
+            }
+        }
+        mass = total;
+        numberOfBodies = count;
+        if (total == 0) {
+            massX = massY = massZ = 0;
+        } else {
+            massX = sx / total;
+            massY = sy / total;
+            massZ = sz / total;
+        }
+    }
+
+    public String getName() {
+        return "Cell[" + centerX + "," + centerY + "," + centerZ + "]";
+    }
+
+    public int numberOfBodies() {
+        return numberOfBodies;
+    }
+
+    public double getMass() {
+        return mass;
+    }
+
+    public Vector3 getMassCenter() {
+        return new Vector3(massX, massY, massZ);
+    }
+}
@@ -0,0 +1,192 @@
+package cosmicsystem;
+
+// Leapfrog (kick-drift-kick) with individual block time steps: every body gets its own time
+// step dt/2^k (k = 0, ..., MAX_LEVEL) chosen by the criterion eta*|a|/|jerk|, so a moon
+// around a planet can take thousands of small steps while an outer planet takes one large
+// step. All bodies are drifted together, but on each substep only the bodies whose step ends
+// get their forces evaluated and their movement kicked.
+//
+// The jerk (time derivative of the acceleration) is estimated from the last two force
+// evaluations of a body. For the first step it comes from the engine if it computes jerks
+// ('ForceEngine.computesJerks'), otherwise from two evaluations dt/2^PROBE_LEVEL apart.
+// The accelerations in the store are reused between calls of 'step', so the store should
+// only be advanced by this integrator (call 'reset' after changing it otherwise).
+public class BlockTimeStepIntegrator implements Integrator {
+
+    // the smallest possible step is dt/2^MAX_LEVEL.
+    public static final int MAX_LEVEL = 30;
+    private static final long TICKS = 1L << MAX_LEVEL; // ticks per step of length dt.
+    // the first jerks of an engine without jerks are estimated over a time of dt/2^PROBE_LEVEL.
+    private static final int PROBE_LEVEL = 20;
+
+    private final double eta;
+
+    private BodyStore store;
+    private int[] level = new int[0];
+    private long[] end = new long[0]; // tick at which the current step of a body ends.
+    private double[] lastX = new double[0], lastY = lastX, lastZ = lastX; // accelerations of the last evaluation
+    private double[] jerkX = lastX, jerkY = lastX, jerkZ = lastX;
+    private int[] active = new int[0];
+    private long forceEvaluations;
+
+    // 'eta' is the accuracy parameter of the time step criterion (e.g. 0.02).
+    public BlockTimeStepIntegrator(double eta) {
+        if (eta <= 0) {
+            throw new IllegalArgumentException("eta must be positive: " + eta);
+        }
+        this.eta = eta;
+    }
+
+    public double getEta() {
+        return eta;
+    }
+
+    // Returns the level k of the time step dt/2^k the body with index 'i' will take next.
+    public int getLevel(int i) {
+        return level[i];
+    }
+
+    // Returns the number of (single body) force evaluations so far.
+    public long getForceEvaluations() {
+        return forceEvaluations;
+    }
+
+    // Forgets the accelerations and levels of the last step (they are computed again in the next step).
+    public void reset() {
+        store = null;
+    }
+
+    public void step(BodyStore store, ForceEngine engine, double dt) {
+        int n = store.n;
+        if (this.store != store || level.length != n) {
+            start(store, engine, dt);
+        }
+        double tick = dt / TICKS;
+
+        // first half kick of every body; all steps start at tick 0 and end at tick TICKS at the latest.
+        for (int i = 0; i < n; i++) {
+            end[i] = TICKS >> level[i];
+            kick(store, i, 0.5 * dt / (1L << level[i]));
+        }
+
+        long t = 0;
+        while (t < TICKS) {
+            long next = TICKS;
+            for (int i = 0; i < n; i++) {
+                next = Math.min(next, end[i]);
+            }
+            store.drift((next - t) * tick);
+            t = next;
+
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                if (end[i] == t) {
+                    active[count++] = i;
+                }
+            }
+            engine.computeAccelerations(store, active, count);
+            forceEvaluations += count;
+
+            for (int k = 0; k < count; k++) {
+                int i = active[k];
+                double stepped = dt / (1L << level[i]);
+                jerkX[i] = (store.ax[i] - lastX[i]) / stepped;
+                jerkY[i] = (store.ay[i] - lastY[i]) / stepped;
+                jerkZ[i] = (store.az[i] - lastZ[i]) / stepped;
+                lastX[i] = store.ax[i];
+                lastY[i] = store.ay[i];
+                lastZ[i] = store.az[i];
+
+                // second half kick of the finished step.
+                kick(store, i, 0.5 * stepped);
+                level[i] = chooseLevel(store, i, dt, t);
+                if (t < TICKS) {
+                    // first half kick of the next step.
+                    end[i] = t + (TICKS >> level[i]);
+                    kick(store, i, 0.5 * dt / (1L << level[i]));
+                }
+            }
+        }
+    }
+
+    // Computes the accelerations and jerks of all bodies with 'engine' and chooses the first levels.
+    private void start(BodyStore store, ForceEngine engine, double dt) {
+        int n = store.n;
+        this.store = store;
+        level = new int[n];
+        end = new long[n];
+        lastX = new double[n];
+        lastY = new double[n];
+        lastZ = new double[n];
+        jerkX = new double[n];
+        jerkY = new double[n];
+        jerkZ = new double[n];
+        active = new int[n];
+        for (int i = 0; i < n; i++) {
+            active[i] = i;
+        }
+        if (engine.computesJerks()) {
+            engine.computeAccelerationsAndJerks(store, jerkX, jerkY, jerkZ);
+            forceEvaluations += n;
+        } else {
+            // difference of the accelerations now and after drifting by a very short time; the
+            // positions are kept in the jerk arrays meanwhile.
+            double probe = dt / (1L << PROBE_LEVEL);
+            engine.computeAccelerations(store);
+            System.arraycopy(store.ax, 0, lastX, 0, n);
+            System.arraycopy(store.ay, 0, lastY, 0, n);
+            System.arraycopy(store.az, 0, lastZ, 0, n);
+            System.arraycopy(store.x, 0, jerkX, 0, n);
+            System.arraycopy(store.y, 0, jerkY, 0, n);
+            System.arraycopy(store.z, 0, jerkZ, 0, n);
+            store.drift(probe);
+            engine.computeAccelerations(store);
+            forceEvaluations += 2 * n;
+            for (int i = 0; i < n; i++) {
+                store.x[i] = jerkX[i];
+                store.y[i] = jerkY[i];
+                store.z[i] = jerkZ[i];
+                jerkX[i] = (store.ax[i] - lastX[i]) / probe;
+                jerkY[i] = (store.ay[i] - lastY[i]) / probe;
+                jerkZ[i] = (store.az[i] - lastZ[i]) / probe;
+                store.ax[i] = lastX[i];
+                store.ay[i] = lastY[i];
+                store.az[i] = lastZ[i];
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            lastX[i] = store.ax[i];
+            lastY[i] = store.ay[i];
+            lastZ[i] = store.az[i];
+            level[i] = chooseLevel(store, i, dt, 0);
+        }
+    }
+
+    // Returns the level of the largest step dt/2^k not larger than eta*|a|/|jerk| which
+    // starts at a multiple of its own length (so that all steps stay synchronised).
+    private int chooseLevel(BodyStore store, int i, double dt, long t) {
+        double a = Math.sqrt(store.ax[i] * store.ax[i] + store.ay[i] * store.ay[i] + store.az[i] * store.az[i]);
+        double j = Math.sqrt(jerkX[i] * jerkX[i] + jerkY[i] * jerkY[i] + jerkZ[i] * jerkZ[i]);
+        int k = 0;
+        if (j > 0) {
+            double preferred = eta * a / j;
+            while (k < MAX_LEVEL && dt / (1L << k) > preferred) {
+                k++;
+            }
+        }
+        while (k < MAX_LEVEL && (t & ((TICKS >> k) - 1)) != 0) {
+            k++;
+        }
+        return k;
+    }
+
+    private static void kick(BodyStore store, int i, double dt) {
+        store.vx[i] += store.ax[i] * dt;
+        store.vy[i] += store.ay[i] * dt;
+        store.vz[i] += store.az[i] * dt;
+    }
+
+    public String toString() {
+        return "block time steps (eta = " + eta + ")";
+    }
+}
@@ -1,5 +1,8 @@
+package cosmicsystem;
+
 import java.awt.*;
 import java.io.IOException;
+import java.util.function.Consumer;
 
 // This class represents celestial bodies like stars, planets, asteroids, etc..
 public class Body implements CosmicComponent, Cluster {
@@ -7,29 +10,33 @@ public class Body implements CosmicComponent, Cluster {
     private final String name;
     private final double mass;
     private final double radius;
-    private Vector3 position; // position of the center.
-    private Vector3 currentMovement;
+    private final Vector3 position; // position of the center.
+    private final Vector3 currentMovement;
     private final Color color; // for drawing the body.
-    private Vector3 force;
+    private final Vector3 force;
+    // the system which directly contains this body (see 'ComplexCosmicSystem.add'), or 'null'.
+    private ComplexCosmicSystem system;
 
+    // Position, movement and force of a body are own vectors which are updated in place
+    // (see 'move'), so the constructors and setters copy the specified vectors.
     public Body(String name, double mass, double radius, Vector3 position, Vector3 currentMovement, Color color) {
         this.name = name;
         this.mass = mass;
         this.radius = radius;
-        this.position = position;
-        this.currentMovement = currentMovement;
+        this.position = new Vector3(0, 0, 0).set(position);
+        this.currentMovement = new Vector3(0, 0, 0).set(currentMovement);
         this.color = color;
-        this.force = null;
+        this.force = new Vector3(0, 0, 0);
     }
 
     public Body(Body body) {
         this.name = body.name;
         this.mass = body.mass;
         this.radius = body.radius;
-        this.position = body.position;
-        this.currentMovement = body.currentMovement;
+        this.position = new Vector3(0, 0, 0).set(body.position);
+        this.currentMovement = new Vector3(0, 0, 0).set(body.currentMovement);
         this.color = body.color;
-        this.force = null;
+        this.force = new Vector3(0, 0, 0);
     }
 
 
@@ -41,12 +48,25 @@ public class Body implements CosmicComponent, Cluster {
     public Color getColor() {return color;}
     public Vector3 getForce() {return this.force;}
 
-    public void setPosition(Vector3 position) { this.position = position; }
-    public void setCurrentMovement(Vector3 currentMovement) { this.currentMovement = currentMovement; }
-    public void setForce(Vector3 v) {this.force = v;}
+    public void setPosition(Vector3 position) { this.position.set(position); positionChanged(); }
+    public void setCurrentMovement(Vector3 currentMovement) { this.currentMovement.set(currentMovement); }
+    public void setForce(Vector3 v) {this.force.set(v);}
 
     public Vector3 getMassCenter() {return position;}
 
+    ComplexCosmicSystem getSystem() {return system;}
+    void setSystem(ComplexCosmicSystem system) {this.system = system;}
+
+    // Has to be called after the position of this body was changed, so the system which contains
+    // this body (and its ancestors) recompute their cached mass centers. The methods of this class
+    // which change the position do this; code which changes the vector returned by 'getPosition'
+    // directly has to call it itself.
+    void positionChanged() {
+        if (system != null) {
+            system.invalidate();
+        }
+    }
+
     @Override
     public Cluster add(Body c) throws BalancedSystemIllegalArgumentException, IOException {
         return new BalancedSystem(this, c);
@@ -79,44 +99,75 @@ public class Body implements CosmicComponent, Cluster {
     //To calculate the force exerted on b1, simply multiply the normalized vector pointing from b1 to b2 with the
     //calculated force
     public Vector3 gravitationalForce(Body body) {
-        Vector3 direction = body.getPosition().minus(this.getPosition());
-        double distance = direction.length();
-        direction.normalize();
+        Vector3 result = new Vector3(0, 0, 0);
+        addGravitationalForce(body, result);
+        return result;
+    }
+
+    // Adds the gravitational force exerted by 'body' on this body to the force of this body
+    // (see 'getForce'). Does not create any objects.
+    public void addGravitationalForce(Body body) {
+        addGravitationalForce(body, this.force);
+    }
+
+    // Adds the gravitational force exerted by 'body' on this body to 'sum'.
+    private void addGravitationalForce(Body body, Vector3 sum) {
+        double dX = body.position.getX() - position.getX();
+        double dY = body.position.getY() - position.getY();
+        double dZ = body.position.getZ() - position.getZ();
+        double distance = Math.sqrt(dX*dX + dY*dY + dZ*dZ);
         double force = Simulation.G *this.getMass()*body.getMass()/(distance * distance);
-        return direction.times(force);
+        // the normalized direction times the force.
+        double s = force / distance;
+        sum.set(sum.getX() + dX*s, sum.getY() + dY*s, sum.getZ() + dZ*s);
+    }
+
+    // Adds the gravitational force exerted by 'body' on this body to the force of this body and
+    // the opposite force (Newton's third law) to the force of 'body', so each pair of bodies
+    // is computed only once.
+    public void addMutualGravitationalForce(Body body) {
+        double dX = body.position.getX() - position.getX();
+        double dY = body.position.getY() - position.getY();
+        double dZ = body.position.getZ() - position.getZ();
+        double distance = Math.sqrt(dX*dX + dY*dY + dZ*dZ);
+        double s = Simulation.G *this.getMass()*body.getMass()/(distance * distance * distance);
+        force.set(force.getX() + dX*s, force.getY() + dY*s, force.getZ() + dZ*s);
+        body.force.set(body.force.getX() - dX*s, body.force.getY() - dY*s, body.force.getZ() - dZ*s);
+    }
+
+    // Sets the force exerted on this body to 0.
+    public void resetForce() {
+        force.set(0, 0, 0);
     }
 
     // Moves this body to a new position, according to the specified force vector 'force' exerted
     // on it, and updates the current movement accordingly.
     // (Movement depends on the mass of this body, its current movement and the exerted force)
     // Hint: see simulation loop in Simulation.java to find out how this is done
+    // The position and movement vectors of this body are changed in place.
     public void move(Vector3 force) {
-        Vector3 newPosition = this.currentMovement.plus(this.position.plus(
-                force.times(1/this.mass))
-                // F = m*a -> a = F/m
-        );
-
-        Vector3 newMovement = newPosition.minus(this.position); // new minus old position.
-
-        this.position = newPosition;
-        this.currentMovement = newMovement;
+        // F = m*a -> a = F/m, the new movement is the new minus the old position.
+        this.currentMovement.addScaled(force, 1/this.mass);
+        this.position.add(this.currentMovement);
+        positionChanged();
     }
 
     public void move() {
-        Vector3 newPosition = this.currentMovement.plus(this.position.plus(
-                this.force.times(1/this.mass))
-                // F = m*a -> a = F/m
-        );
-
-        Vector3 newMovement = newPosition.minus(this.position); // new minus old position.
+        move(this.force);
+    }
 
-        this.position = newPosition;
-        this.currentMovement = newMovement;
+    // Moves this body according to its force within 'dt' seconds (move() moves it within one second).
+    // For other integration methods than this one see 'Integrator'.
+    public void move(double dt) {
+        this.currentMovement.addScaled(this.force, dt/this.mass);
+        this.position.addScaled(this.currentMovement, dt);
+        positionChanged();
     }
 
     public void setState(Vector3 position, Vector3 velocity) {
-        this.position = position;
-        this.currentMovement = velocity;
+        this.position.set(position);
+        this.currentMovement.set(velocity);
+        positionChanged();
     }
 
 
@@ -144,6 +195,11 @@ public class Body implements CosmicComponent, Cluster {
         return new myIterator(this);
     }
 
+    @Override
+    public void forEachBody(Consumer<Body> action) {
+        action.accept(this);
+    }
+
     public static class myIterator implements BodyIterator {
         private final Body thisBody;
         private Body current;
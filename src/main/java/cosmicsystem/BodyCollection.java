@@ -1,3 +1,5 @@
+package cosmicsystem;
+
 public interface BodyCollection extends BodyIterable {
 
     // Ensures that this collection contains the specified body. Returns 'true' if this collection
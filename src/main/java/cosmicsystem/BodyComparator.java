@@ -1,3 +1,5 @@
+package cosmicsystem;
+
 public interface BodyComparator {
 
     // A comparison function, which imposes a total ordering on objects of class 'Body'.
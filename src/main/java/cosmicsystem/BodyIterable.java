@@ -0,0 +1,19 @@
+package cosmicsystem;
+
+import java.util.function.Consumer;
+
+public interface BodyIterable extends Iterable<Body> {
+
+    // Returns an iterator over elements of type 'Body'.
+    BodyIterator iterator();
+
+    // Calls 'action' for every body, in the order of 'iterator()'. Implementations override
+    // this to traverse their structure directly, without creating iterators.
+    default void forEachBody(Consumer<Body> action) {
+        BodyIterator iter = iterator();
+        while (iter.hasNext()) {
+            action.accept(iter.next());
+        }
+    }
+
+}
\ No newline at end of file
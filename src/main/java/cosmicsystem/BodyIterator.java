@@ -1,3 +1,5 @@
+package cosmicsystem;
+
 // An iterator over elements of type 'Body'.
 public interface BodyIterator extends java.util.Iterator<Body> {
 
@@ -0,0 +1,110 @@
+package cosmicsystem;
+
+// A packed copy of the state of a set of bodies (structure of arrays): positions, movements,
+// accelerations and masses are kept in contiguous 'double' arrays instead of separate
+// 'Vector3' objects per body, which is what the hot loops of the simulation iterate over.
+// The body with index i is 'getBody(i)'; its state is copied in by 'load' and back to the
+// 'Body' object by 'writeBack', e.g. before drawing.
+public class BodyStore {
+
+    private final Body[] bodies;
+    final int n;
+
+    final double[] x, y, z;     // position
+    final double[] vx, vy, vz;  // current movement (velocity)
+    final double[] ax, ay, az;  // acceleration, i.e. total force / mass
+    final double[] mass;
+
+    // Creates a store with all bodies of 'system' (in iteration order).
+    public BodyStore(ComplexCosmicSystem system) {
+        this(Simulation.toArray(system));
+    }
+
+    // Creates a store with the specified bodies. The array is referenced, not copied.
+    public BodyStore(Body[] bodies) {
+        this.bodies = bodies;
+        this.n = bodies.length;
+        x = new double[n];
+        y = new double[n];
+        z = new double[n];
+        vx = new double[n];
+        vy = new double[n];
+        vz = new double[n];
+        ax = new double[n];
+        ay = new double[n];
+        az = new double[n];
+        mass = new double[n];
+        load();
+    }
+
+    // Returns the number of bodies in this store.
+    public int size() {
+        return n;
+    }
+
+    // Returns the body with index 'i'.
+    public Body getBody(int i) {
+        return bodies[i];
+    }
+
+    // Copies position, movement and mass of every body into this store
+    // (e.g. after the bodies were changed outside of the store).
+    public void load() {
+        for (int i = 0; i < n; i++) {
+            Body body = bodies[i];
+            Vector3 position = body.getPosition();
+            Vector3 movement = body.getCurrentMovement();
+            x[i] = position.getX();
+            y[i] = position.getY();
+            z[i] = position.getZ();
+            vx[i] = movement.getX();
+            vy[i] = movement.getY();
+            vz[i] = movement.getZ();
+            mass[i] = body.getMass();
+        }
+    }
+
+    // Copies position, movement and total force (mass * acceleration) of every body
+    // from this store back to the 'Body' objects.
+    public void writeBack() {
+        for (int i = 0; i < n; i++) {
+            Body body = bodies[i];
+            body.getPosition().set(x[i], y[i], z[i]);
+            body.positionChanged();
+            body.getCurrentMovement().set(vx[i], vy[i], vz[i]);
+            body.getForce().set(ax[i] * mass[i], ay[i] * mass[i], az[i] * mass[i]);
+        }
+    }
+
+    // Sets the acceleration of every body to 0.
+    public void clearAccelerations() {
+        java.util.Arrays.fill(ax, 0, n, 0);
+        java.util.Arrays.fill(ay, 0, n, 0);
+        java.util.Arrays.fill(az, 0, n, 0);
+    }
+
+    // Moves every body according to its acceleration within one second, the same way as
+    // 'Body.move' does: the movement changes by the acceleration, the position by the new movement.
+    public void move() {
+        kick(1);
+        drift(1);
+    }
+
+    // Changes the movement of every body by its acceleration during 'dt' seconds.
+    public void kick(double dt) {
+        for (int i = 0; i < n; i++) {
+            vx[i] += ax[i] * dt;
+            vy[i] += ay[i] * dt;
+            vz[i] += az[i] * dt;
+        }
+    }
+
+    // Changes the position of every body by its movement during 'dt' seconds.
+    public void drift(double dt) {
+        for (int i = 0; i < n; i++) {
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+            z[i] += vz[i] * dt;
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package cosmicsystem;
+
 import java.io.IOException;
 
 public interface Cluster extends BodyIterable {
@@ -0,0 +1,129 @@
+package cosmicsystem;
+
+import java.util.Arrays;
+
+// Finds the pairs of bodies whose spheres overlap, without testing all n*(n-1)/2 pairs
+// (sweep and prune): the bodies are sorted by the lower end x - r of their extent along the
+// x axis, and a body is only tested against the following bodies whose extent starts
+// before its own extent ends. The order is kept between calls and sorted again by insertion
+// sort, which is almost linear because the bodies move only a little per step. It is only
+// sorted completely (with 'Arrays.sort') in the first call or if the number of bodies changed
+// without 'renumber'.
+public class CollisionDetector {
+
+    private int[] order = new int[0];
+    private double[] lower = new double[0];
+    private int[] pairs = new int[32]; // first and second index of every pair.
+    private int count;
+
+    // Finds all pairs (i, j) of the bodies 0..'n'-1 with the distance of their positions
+    // ('x', 'y', 'z') smaller than the sum of their radii. Returns the number of pairs; the
+    // indices of pair k are 'getFirst(k)' and 'getSecond(k)'.
+    public int detect(double[] x, double[] y, double[] z, double[] radius, int n) {
+        boolean sorted = order.length == n;
+        if (!sorted) {
+            order = new int[n];
+            lower = new double[n];
+        }
+        for (int i = 0; i < n; i++) {
+            lower[i] = x[i] - radius[i];
+        }
+        if (!sorted) {
+            Integer[] indices = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                indices[i] = i;
+            }
+            Arrays.sort(indices, (i, j) -> Double.compare(lower[i], lower[j]));
+            for (int i = 0; i < n; i++) {
+                order[i] = indices[i];
+            }
+        }
+        for (int k = 1; k < n; k++) {
+            int i = order[k];
+            double key = lower[i];
+            int l = k - 1;
+            while (l >= 0 && lower[order[l]] > key) {
+                order[l + 1] = order[l];
+                l--;
+            }
+            order[l + 1] = i;
+        }
+
+        count = 0;
+        for (int k = 0; k < n; k++) {
+            int i = order[k];
+            double upper = x[i] + radius[i];
+            for (int l = k + 1; l < n && lower[order[l]] <= upper; l++) {
+                int j = order[l];
+                double dx = x[j] - x[i], dy = y[j] - y[i], dz = z[j] - z[i];
+                double r = radius[i] + radius[j];
+                if (dx * dx + dy * dy + dz * dz < r * r) {
+                    addPair(i, j);
+                }
+            }
+        }
+        return count;
+    }
+
+    // Keeps the order of the last 'detect' after bodies were removed (e.g. merged): body i is
+    // now body 'index[i]', or was removed if 'index[i]' is negative. So the next 'detect' only
+    // has to sort the few bodies which moved, instead of sorting all of them again.
+    public void renumber(int[] index) {
+        int m = 0;
+        for (int k = 0; k < order.length; k++) {
+            int i = index[order[k]];
+            if (i >= 0) {
+                order[m++] = i;
+            }
+        }
+        order = Arrays.copyOf(order, m);
+        lower = new double[m];
+    }
+
+    // Returns the number of pairs found by the last call of 'detect'.
+    public int size() {
+        return count;
+    }
+
+    public int getFirst(int k) {
+        return pairs[2 * k];
+    }
+
+    public int getSecond(int k) {
+        return pairs[2 * k + 1];
+    }
+
+    private void addPair(int i, int j) {
+        if (2 * count + 2 > pairs.length) {
+            pairs = Arrays.copyOf(pairs, 2 * pairs.length);
+        }
+        pairs[2 * count] = Math.min(i, j);
+        pairs[2 * count + 1] = Math.max(i, j);
+        count++;
+    }
+
+    // Returns a new body which replaces 'a' and 'b': it has the total mass, the position of the
+    // mass center and the total momentum of both (so the momentum is conserved), the volume of
+    // both, and the name and color of the heavier one. 'a' and 'b' are removed from the systems
+    // which contain them, and the new body is added to the system of the heavier one.
+    public static Body merge(Body a, Body b) {
+        Body heavier = a.getMass() >= b.getMass() ? a : b;
+        double mass = a.getMass() + b.getMass();
+        Vector3 position = a.getPosition().times(a.getMass()).addScaled(b.getPosition(), b.getMass()).scale(1 / mass);
+        Vector3 movement = a.getCurrentMovement().times(a.getMass()).addScaled(b.getCurrentMovement(), b.getMass()).scale(1 / mass);
+        double radius = Math.cbrt(a.getRadius() * a.getRadius() * a.getRadius() + b.getRadius() * b.getRadius() * b.getRadius());
+        Body merged = new Body(heavier.getName(), mass, radius, position, movement, heavier.getColor());
+
+        ComplexCosmicSystem system = heavier.getSystem();
+        if (a.getSystem() != null) {
+            a.getSystem().remove(a);
+        }
+        if (b.getSystem() != null) {
+            b.getSystem().remove(b);
+        }
+        if (system != null) {
+            system.add(merged);
+        }
+        return merged;
+    }
+}
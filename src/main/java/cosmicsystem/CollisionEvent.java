@@ -0,0 +1,28 @@
+package cosmicsystem;
+
+// Two bodies which collided and were merged into one (see 'CollisionDetector.merge').
+public final class CollisionEvent {
+
+    private final double seconds;
+    private final Body first, second;
+    private final Body merged;
+
+    public CollisionEvent(double seconds, Body first, Body second, Body merged) {
+        this.seconds = seconds;
+        this.first = first;
+        this.second = second;
+        this.merged = merged;
+    }
+
+    // Returns the simulated time of the collision in seconds.
+    public double getSeconds() {return seconds;}
+    public Body getFirst() {return first;}
+    public Body getSecond() {return second;}
+    // Returns the body which replaces 'getFirst()' and 'getSecond()'.
+    public Body getMerged() {return merged;}
+
+    public String toString() {
+        return seconds + " s: " + first.getName() + " collided with " + second.getName()
+                + " (merged into " + merged.getName() + ", mass = " + merged.getMass() + " kg)";
+    }
+}
@@ -0,0 +1,688 @@
+package cosmicsystem;
+
+import java.awt.*;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+//This class represents a double-linked list for objects of class 'CosmicComponent'.
+//Number of bodies, mass and mass center are cached. Every system knows the system which
+//contains it ('parent') and every body knows its system, so a change (adding or removing a
+//component, moving a body) only invalidates the caches of the systems on the path to the root.
+//A cached value is recomputed when it is queried the next time, using the caches of the children.
+//The root of a hierarchy (the system without parent) indexes all bodies of the hierarchy by name,
+//and every system finds its root in amortised O(1) (the 'root' links are shortened like in a
+//union-find structure), so 'getParent' and 'contains' do not have to search the hierarchy.
+//Every system also finds its own components by name in a hash map, so 'add', 'remove' and 'get'
+//do not walk the list.
+public class ComplexCosmicSystem implements CosmicComponent, BodyIterable, CosmicSystemIndex {
+
+    private myCosmicNode head;
+    private myCosmicNode tail;
+    private final String name;
+    private ComplexCosmicSystem parent;
+    // 'this' for the system without parent, otherwise a system above this one which is closer
+    // to the root (see 'root()').
+    private ComplexCosmicSystem root = this;
+    private final HashMap<String, myCosmicNode> nodes = new HashMap<>(); // the components by name
+
+    // Cached aggregates, only up to date if 'valid' is true. If a system is not valid,
+    // its parent is not valid either.
+    private boolean valid;
+    private int bodies;
+    private double mass;
+    private final Vector3 massCenter = new Vector3(0, 0, 0);
+
+    // The bodies of the hierarchy by name (a 'Body', or a 'Body[]' if several bodies have the
+    // same name). Only the root has an index, it is 'null' for all other systems.
+    private HashMap<String, Object> index = new HashMap<>();
+
+
+    // Initialises this system with a name and at least two cosmic components.
+    public ComplexCosmicSystem(String name, CosmicComponent c1, CosmicComponent c2,
+                               CosmicComponent... ci) {
+        this.name = name;
+        this.add(c1);
+        this.add(c2);
+        for (CosmicComponent i : ci) {
+            this.add(i);
+        }
+    }
+
+    // Returns the system (this system or one of its subsystems) which directly contains a body
+    // equal to 'b', or 'null' if there is no such body. Looks 'b' up in the index of the root and
+    // takes the system of the found body, then checks that this system is within 'this' (O(1) if
+    // 'this' is the root).
+    public ComplexCosmicSystem getParent(Body b) {
+        if(b == null){return null;}
+        Object entry = root().index.get(b.getName());
+        if (entry instanceof Body) {
+            return ((Body) entry).equals(b) ? within(((Body) entry).getSystem()) : null;
+        }
+        if (entry != null) {
+            for (Body body : (Body[]) entry) {
+                if (body.equals(b) && within(body.getSystem()) != null) {
+                    return body.getSystem();
+                }
+            }
+        }
+        return null;
+    }
+
+    public boolean contains(Body b) {
+        return getParent(b) != null;
+    }
+
+    // Returns 'system' if it is 'this' or a subsystem of 'this', 'null' otherwise. Every system of
+    // the hierarchy is within the root; for another system the parents of 'system' are checked.
+    private ComplexCosmicSystem within(ComplexCosmicSystem system) {
+        if (system == null) {
+            return null;
+        }
+        ComplexCosmicSystem root = root();
+        if (system.root() != root) {
+            return null;
+        }
+        if (this == root) {
+            return system;
+        }
+        for (ComplexCosmicSystem s = system; s != null; s = s.parent) {
+            if (s == this) {
+                return system;
+            }
+        }
+        return null;
+    }
+
+    // Adds 'body' to the index of this (root) system.
+    private void indexAdd(Body body) {
+        Object entry = index.putIfAbsent(body.getName(), body);
+        if (entry instanceof Body) {
+            index.put(body.getName(), new Body[] {(Body) entry, body});
+        } else if (entry != null) {
+            Body[] bodies = (Body[]) entry;
+            Body[] more = Arrays.copyOf(bodies, bodies.length + 1);
+            more[bodies.length] = body;
+            index.put(body.getName(), more);
+        }
+    }
+
+    // Returns the root of the hierarchy and links this system and the systems on the way directly to it.
+    private ComplexCosmicSystem root() {
+        ComplexCosmicSystem r = this;
+        while (r.root != r) {
+            r = r.root;
+        }
+        for (ComplexCosmicSystem s = this; s.root != r; ) {
+            ComplexCosmicSystem next = s.root;
+            s.root = r;
+            s = next;
+        }
+        return r;
+    }
+
+    // Makes this (removed) system the root of itself and all its subsystems and moves their bodies
+    // from the index of 'from' to its own index (with an explicit stack, so deep hierarchies do not
+    // need deep recursion).
+    private void reroot(ComplexCosmicSystem from) {
+        ArrayDeque<ComplexCosmicSystem> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            ComplexCosmicSystem s = stack.pop();
+            s.root = this;
+            for (myCosmicNode temp = s.head; temp != null; temp = temp.getNext()) {
+                if (temp.get() instanceof Body) {
+                    from.indexRemove((Body) temp.get());
+                    indexAdd((Body) temp.get());
+                } else if (temp.get() instanceof ComplexCosmicSystem) {
+                    stack.push((ComplexCosmicSystem) temp.get());
+                }
+            }
+        }
+    }
+
+    // Removes 'body' (this object, not an equal one) from the index of this (root) system.
+    private void indexRemove(Body body) {
+        Object entry = index.get(body.getName());
+        if (entry == body) {
+            index.remove(body.getName());
+        } else if (entry instanceof Body[]) {
+            Body[] bodies = (Body[]) entry;
+            int i = 0;
+            while (i < bodies.length && bodies[i] != body) {
+                i++;
+            }
+            if (i == bodies.length) {
+                return;
+            }
+            if (bodies.length == 2) {
+                index.put(body.getName(), bodies[1 - i]);
+            } else {
+                Body[] fewer = new Body[bodies.length - 1];
+                System.arraycopy(bodies, 0, fewer, 0, i);
+                System.arraycopy(bodies, i + 1, fewer, i, fewer.length - i);
+                index.put(body.getName(), fewer);
+            }
+        }
+    }
+
+    public boolean equals(CosmicComponent comp) {
+        if (this.hashCode() == comp.hashCode()) {
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    public int hashCode() {
+        int hash = name.hashCode();
+        myCosmicNode temp = head;
+        while (temp != null) {
+            hash += temp.get().hashCode();
+            temp = temp.getNext();
+        }
+        return hash;
+    }
+
+
+     //Initialises this system as an empty system with a name.
+    public ComplexCosmicSystem(String name) {
+        this.name = name;
+    }
+
+    // Adds 'comp' to the list of cosmic components of the system if the list does not already contain a
+    // component with the same name as 'comp', otherwise does not change the object state. The method
+    // returns 'true' if the list was changed as a result of the call and 'false' otherwise.
+    // A subsystem which belongs to another system is removed from that system first. Adding this
+    // system or a system which contains it throws an 'IllegalArgumentException'.
+    public boolean add(CosmicComponent comp) {
+        if (nodes.containsKey(comp.getName())) {
+            return false;
+        }
+        if (comp instanceof ComplexCosmicSystem) {
+            ComplexCosmicSystem system = (ComplexCosmicSystem) comp;
+            if (system.within(this) != null) {
+                throw new IllegalArgumentException(system.getName() + " cannot be added to the system "
+                        + name + " which is part of it");
+            }
+            if (system.parent != null) {
+                system.parent.remove(system);
+            }
+        }
+        append(comp);
+        return true;
+    }
+
+    // Adds 'comp' to the end of the list (O(1), the name is checked by 'add').
+    private void append(CosmicComponent comp) {
+        myCosmicNode node = new myCosmicNode(comp);
+        nodes.put(comp.getName(), node);
+        if (head == null) {
+            head = node;
+        } else {
+            tail.setNext(node);
+            node.setPrev(tail);
+        }
+        tail = node;
+        attach(comp);
+    }
+
+    // Links 'comp' (which was just added) to this system. The bodies of an added subsystem (the
+    // root of its own hierarchy so far) move from its own index to the index of the root.
+    private void attach(CosmicComponent comp) {
+        ComplexCosmicSystem root = root();
+        if (comp instanceof Body) {
+            ((Body) comp).setSystem(this);
+            root.indexAdd((Body) comp);
+        } else if (comp instanceof ComplexCosmicSystem) {
+            ComplexCosmicSystem system = (ComplexCosmicSystem) comp;
+            system.parent = this;
+            for (Map.Entry<String, Object> entry : system.index.entrySet()) {
+                if (entry.getValue() instanceof Body) {
+                    root.indexAdd((Body) entry.getValue());
+                } else {
+                    for (Body body : (Body[]) entry.getValue()) {
+                        root.indexAdd(body);
+                    }
+                }
+            }
+            system.index = null;
+            system.root = root;
+        }
+        invalidate();
+    }
+
+    // Unlinks 'comp' (which was just removed) from this system. A removed subsystem becomes
+    // the root of its own hierarchy and gets its own index.
+    private void detach(CosmicComponent comp) {
+        ComplexCosmicSystem root = root();
+        if (comp instanceof Body) {
+            Body body = (Body) comp;
+            if (body.getSystem() == this) {
+                body.setSystem(null);
+            }
+            root.indexRemove(body);
+        } else if (comp instanceof ComplexCosmicSystem) {
+            ComplexCosmicSystem system = (ComplexCosmicSystem) comp;
+            if (system.parent == this) {
+                system.parent = null;
+                system.index = new HashMap<>();
+                system.reroot(root);
+            }
+        }
+        invalidate();
+    }
+
+    // Marks the cached aggregates of this system and its ancestors as outdated. Stops at the
+    // first system which is already invalid (its ancestors are invalid as well).
+    void invalidate() {
+        for (ComplexCosmicSystem s = this; s != null && s.valid; s = s.parent) {
+            s.valid = false;
+        }
+    }
+
+    // Recomputes the cached aggregates if they are outdated. The outdated subsystems are updated
+    // first (post-order with an explicit stack, so deep hierarchies do not need deep recursion);
+    // subsystems which are still valid are not visited.
+    private void update() {
+        if (valid) {
+            return;
+        }
+        ArrayDeque<ComplexCosmicSystem> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            ComplexCosmicSystem s = stack.peek();
+            boolean ready = true;
+            for (myCosmicNode temp = s.head; temp != null; temp = temp.getNext()) {
+                if (temp.get() instanceof ComplexCosmicSystem && !((ComplexCosmicSystem) temp.get()).valid) {
+                    stack.push((ComplexCosmicSystem) temp.get());
+                    ready = false;
+                }
+            }
+            if (ready) {
+                stack.pop();
+                s.recompute();
+            }
+        }
+    }
+
+    // Computes the aggregates from the components, whose aggregates are up to date.
+    private void recompute() {
+        int count = 0;
+        double total = 0;
+        massCenter.set(0, 0, 0);
+        for (myCosmicNode temp = head; temp != null; temp = temp.getNext()) {
+            CosmicComponent comp = temp.get();
+            double m = comp.getMass();
+            count += comp.numberOfBodies();
+            total += m;
+            massCenter.addScaled(comp.getMassCenter(), m);
+        }
+        if (total == 0) {
+            massCenter.set(0, 0, 0);
+        } else {
+            massCenter.scale(1 / total);
+        }
+        bodies = count;
+        mass = total;
+        valid = true;
+    }
+
+    // Returns the first node of the list of components, or 'null' if this system is empty.
+    myCosmicNode getHead() {
+        return head;
+    }
+
+    //Removes a component from the list if the list contains a component with the same name as the input component.
+    //Returns true if removal was done, and false otherwise (no component with the same name).
+    public boolean remove(CosmicComponent comp) {
+        myCosmicNode temp = nodes.remove(comp.getName());
+        if (temp == null) {
+            return false;
+        } else if (temp == head && temp.getNext() == null) {
+            head = null;
+            tail = null;
+        } else if (temp == head && temp.getNext() != null) {
+            temp.getNext().setPrev(null);
+            head = temp.getNext();
+        } else if (temp != head && temp.getNext() == null) {
+            tail = temp.getPrev();
+            temp.getPrev().setNext(null);
+            temp.setPrev(null);
+        } else {
+            myCosmicNode n = temp.getNext();
+            myCosmicNode p = temp.getPrev();
+            p.setNext(n);
+            n.setPrev(p);
+        }
+        detach(temp.get());
+        return true;
+    }
+
+    // Returns the CosmicComponent with the specified name or 'null' if no such component exists in the list.
+    public CosmicComponent get(String name) {
+        myCosmicNode temp = nodes.get(name);
+        if (temp != null) {return temp.get();}
+        else {return null;}
+    }
+
+    // Returns the CosmicComponent with the same name as the input component or 'null' if no such CosmicComponent exists in the list.
+    public CosmicComponent get(CosmicComponent c) {
+           return get(c.getName());
+    }
+
+    // Returns the name of this system.
+    public String getName() {
+        return this.name;
+    }
+
+    // Returns the number of CosmicComponent entries of the list.
+    public int size() {
+        return numberOfBodies();
+    }
+
+    // Returns a readable representation of the ComplexCosmicSystem.
+    // The representation should list all the names of its bodies and sub-systems, where the hierarchy is indicated by {} brackets
+    //For instance, considering if we have a system called "Solar System" with the entries "Sun", "Earth System" and "Jupiter System".
+    //"Sun" is a body, "Earth System" is a system with the bodies "Earth" and "Moon", and "Jupiter System" is a system with the body "Jupiter".
+    //Then the output should be "Solar System{Sun, Earth System{Earth, Moon}, Jupiter System{Jupiter}}"
+    //An empty system is indicated by empty brackets, e.g. "Jupiter System{}"
+    //
+    //CONSTRAINT: use the concept of dynamic binding to fulfill this task, i.e. don't use type casts, getClass() or instanceOf().
+    public String toString() {
+        String result = name + "{";
+        myCosmicNode temp = head;
+        while (temp.getNext() != null) {
+            result += temp.get().toString() + ", ";
+            temp = temp.getNext();
+        }
+        result += temp.get().toString() + "}";
+        return result;
+    }
+
+    /*
+     public String toStringReversed() {
+       String result = name + "{";
+      myCosmicNode temp = head;
+      while (temp.getNext() != null) {temp = temp.getNext();}
+      while (temp.getPrev() != null) {
+          result += temp.get().toStringReversed()  + ", ";
+          temp = temp.getPrev();
+      }
+      result += temp.get().toStringReversed() + "}";
+      return result;
+    }
+*/
+    //Returns the overall number of bodies (i.e. objects of type 'Body') contained in the ComplexCosmicSystem.
+    //For instance, the System "Solar System{Sun, Earth System{Earth, Moon}, Jupiter System{Jupiter}}" contains 4 bodies (Sun, Earth, Moon and Jupiter).
+    //
+    //CONSTRAINT: use the concept of dynamic binding to fulfill this task, i.e. don't use type casts, getClass() or instanceOf().
+    public int numberOfBodies() {
+        update();
+        return bodies;
+    }
+
+    //Returns the overall mass (sum of all contained components).
+    //In case of an empty system, a mass of 0.0 should be returned.
+    //
+    //CONSTRAINT: use the concept of dynamic binding to fulfill this task, i.e. don't use type casts, getClass() or instanceOf().
+    public double getMass() {
+        update();
+        return mass;
+    }
+
+    //Returns the gravitational center of this component (weighted average of contained components).
+    //In case of an empty system, a vector [0.0, 0.0, 0.0] should be returned.
+    //
+    //CONSTRAINT: use the concept of dynamic binding to fulfill this task, i.e. don't use type casts, getClass() or instanceOf().
+    //
+    // Returns a new vector (changing it does not change the cached mass center).
+    public Vector3 getMassCenter() {
+        update();
+        return new Vector3(0, 0, 0).set(massCenter);
+    }
+
+    public Body[] toArray() {
+        int count = 0;
+        Body[] array = new Body[numberOfBodies()];
+        for (Body i : this) {
+            array[count] = new Body(i);
+            count++;
+        }
+        return array;
+    }
+
+    public BodyCollection getBodies() {
+        return new myCollection(this);
+    }
+
+
+    @Override
+    public BodyIterator iterator() {
+        return new theIterator(this);
+    }
+
+
+    // Calls 'action' for every body of this system and its subsystems (in the order of the iterator).
+    // Walks the lists of components with an explicit stack, so no iterators are created and
+    // deep hierarchies do not need deep recursion.
+    @Override
+    public void forEachBody(Consumer<Body> action) {
+        myCosmicNode[] stack = new myCosmicNode[16];
+        int depth = 0;
+        stack[depth++] = head;
+        while (depth > 0) {
+            myCosmicNode node = stack[depth - 1];
+            if (node == null) {
+                depth--;
+                continue;
+            }
+            stack[depth - 1] = node.getNext();
+            CosmicComponent comp = node.get();
+            if (comp instanceof Body) {
+                action.accept((Body) comp);
+            } else if (comp instanceof ComplexCosmicSystem) {
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, 2 * depth);
+                }
+                stack[depth++] = ((ComplexCosmicSystem) comp).head;
+            }
+        }
+    }
+
+
+    // Returns a spliterator which splits at the boundaries of the components (see 'theSpliterator').
+    @Override
+    public Spliterator<Body> spliterator() {
+        return new theSpliterator(head, null, numberOfBodies());
+    }
+
+    // Covers the bodies of the components from 'first' up to (not including) 'end' of one list
+    // of components. It is split into two ranges of components with about the same number of
+    // bodies; a range with a single subsystem is replaced by the list of that subsystem first.
+    // The sizes are exact, since they are the (cached) numbers of bodies of the components.
+    // The system must not be changed while a spliterator is used.
+    private static class theSpliterator implements Spliterator<Body> {
+        private myCosmicNode first;
+        private myCosmicNode end;
+        private long size;
+        // traversal like in 'theIterator', level 0 is the range 'first'..'end'.
+        private myCosmicNode[] stack;
+        private int depth;
+
+        theSpliterator(myCosmicNode first, myCosmicNode end, long size) {
+            this.first = first;
+            this.end = end;
+            this.size = size;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Body> action) {
+            if (stack == null) {
+                stack = new myCosmicNode[8];
+                stack[depth++] = first;
+            }
+            while (depth > 0) {
+                myCosmicNode node = stack[depth - 1];
+                if (node == null || (depth == 1 && node == end)) {
+                    depth--;
+                    continue;
+                }
+                stack[depth - 1] = node.getNext();
+                CosmicComponent comp = node.get();
+                if (comp instanceof Body) {
+                    size--;
+                    action.accept((Body) comp);
+                    return true;
+                }
+                if (comp instanceof ComplexCosmicSystem) {
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, 2 * depth);
+                    }
+                    stack[depth++] = ((ComplexCosmicSystem) comp).head;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Body> action) {
+            if (stack != null) {
+                while (tryAdvance(action)) {}
+                return;
+            }
+            for (myCosmicNode node = first; node != end; node = node.getNext()) {
+                CosmicComponent comp = node.get();
+                if (comp instanceof Body) {
+                    action.accept((Body) comp);
+                } else if (comp instanceof ComplexCosmicSystem) {
+                    ((ComplexCosmicSystem) comp).forEachBody(action::accept);
+                }
+            }
+            first = end;
+            size = 0;
+        }
+
+        @Override
+        public Spliterator<Body> trySplit() {
+            if (stack != null || size < 2) {
+                return null;
+            }
+            while (first.getNext() == end) {
+                if (!(first.get() instanceof ComplexCosmicSystem)) {
+                    return null;
+                }
+                first = ((ComplexCosmicSystem) first.get()).head;
+                end = null;
+            }
+            long lower = 0;
+            myCosmicNode mid = first;
+            while (mid != end && lower + mid.get().numberOfBodies() <= size / 2) {
+                lower += mid.get().numberOfBodies();
+                mid = mid.getNext();
+            }
+            if (lower == 0) { // the first component has more than half of the bodies.
+                lower = first.get().numberOfBodies();
+                mid = first.getNext();
+            }
+            Spliterator<Body> prefix = new theSpliterator(first, mid, lower);
+            first = mid;
+            size -= lower;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return size;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL;
+        }
+    }
+
+
+    // Depth-first iterator with an explicit stack: for every level of the hierarchy on the path
+    // to the current body, the stack holds the node which is visited next on that level.
+    // The body returned by the following 'next()' is looked up in advance.
+    public class theIterator implements BodyIterator {
+
+        ComplexCosmicSystem ccs;
+        Body current;
+        Body following;
+        myCosmicNode[] stack = new myCosmicNode[8];
+        int depth = 0;
+        boolean nextHasBeenCalled = false;
+
+
+        public theIterator(ComplexCosmicSystem ccs_) {
+            ccs = ccs_;
+            stack[depth++] = ccs.head;
+            advance();
+        }
+
+        // Finds the next body (or sets 'following' to 'null' at the end).
+        private void advance() {
+            following = null;
+            while (depth > 0) {
+                myCosmicNode node = stack[depth - 1];
+                if (node == null) {
+                    depth--;
+                    continue;
+                }
+                stack[depth - 1] = node.getNext();
+                CosmicComponent comp = node.get();
+                if (comp instanceof Body) {
+                    following = (Body) comp;
+                    return;
+                }
+                if (comp instanceof ComplexCosmicSystem) {
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, 2 * depth);
+                    }
+                    stack[depth++] = ((ComplexCosmicSystem) comp).head;
+                }
+            }
+        }
+
+
+        @Override
+        public boolean hasNext() {
+            return following != null;
+        }
+
+
+        @Override
+        public Body next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            current = following;
+            advance();
+            nextHasBeenCalled = true;
+            return current;
+        }
+
+        // Removes the body returned by the last 'next()' from the system which contains it.
+        // The iterator has already moved on to the following node, so removing does not disturb it.
+        public void remove() {
+            if (!nextHasBeenCalled) {
+                throw new IllegalStateException();
+            } else {
+
+                ComplexCosmicSystem c = ccs.getParent(current);
+                if (c != null) {
+                    c.remove(current);
+                } else {
+                    ccs.remove(current);
+                }
+            }
+            nextHasBeenCalled = false;
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package cosmicsystem;
+
 public interface CosmicComponent {
     //Returns the name of the component.
     String getName();
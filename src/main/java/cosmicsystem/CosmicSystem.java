@@ -0,0 +1,182 @@
+package cosmicsystem;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+//This class represents a list for objects of class 'Body'
+//The bodies are kept in a growable array (so 'size' and 'get(i)' take constant time) and
+//are additionally indexed by name in a hash map (so 'get(name)' and the check for
+//duplicate names take constant expected time).
+public class CosmicSystem {
+    private Body[] bodies;
+    private int size;
+    private final HashMap<String, Body> byName;
+    private final String name;
+
+    // Initialises this system as an empty system with a name.
+    public CosmicSystem(String name) {
+        this.name = name;
+        this.bodies = new Body[8];
+        this.byName = new HashMap<>();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Adds 'body' to the end of the list of bodies if the list does not already contain a
+    // body with the same name as 'body', otherwise does not change the object state. The method
+    // returns 'true' if the list was changed as a result of the call and 'false' otherwise.
+    public boolean add(Body body) {
+        return add(size, body);
+    }
+
+    // Returns the 'body' with the index 'i'. The body that was first added to the list has the
+    // index 0, the body that was most recently added to the list has the largest index (size()-1).
+    // Precondition: 'i' is a valid index.
+    public Body get(int i) {
+        if (i < 0 || i >= size) {return null;}
+        return bodies[i];
+    }
+
+
+    // Returns the body with the specified name or 'null' if no such body exits in the list.
+    public Body get(String name) {
+        return byName.get(name);
+    }
+
+    // Returns the node of the body with index 'i' or 'null' if there is no such body.
+    // The bodies are no longer stored in nodes: the nodes of all bodies are created as a linked
+    // copy of the list (O(n)), so walking with 'getNext'/'getPrev' works, but changing the
+    // nodes does not change this system. Use 'get(i)' or 'toArray' instead.
+    @Deprecated
+    public myDLNode myGetNode(int i) {
+        if (i < 0 || i >= size) {return null;}
+        myDLNode result = null;
+        myDLNode prev = null;
+        for (int j = 0; j < size; j++) {
+            myDLNode node = new myDLNode(bodies[j]);
+            node.setPrev(prev);
+            if (prev != null) {
+                prev.setNext(node);
+            }
+            if (j == i) {
+                result = node;
+            }
+            prev = node;
+        }
+        return result;
+    }
+
+    // Returns the index of the body with the specified name or -1 if no such body exists in the list.
+    public int myGetIndex(String name) {
+        Body body = byName.get(name);
+        if (body == null) {return -1;}
+        for (int i = 0; i < size; i++) {
+            if (bodies[i] == body) {return i;}
+        }
+        return -1;
+    }
+
+    // Returns the bodies of the list in order (the references, not copies).
+    public Body[] toArray() {
+        return Arrays.copyOf(bodies, size);
+    }
+
+    // Returns the body with the same name as the input body or 'null' if no such body exits in the list.
+    public Body get(Body body) {
+        return get(body.getName());
+    }
+
+    // returns the number of entries of the list.
+    public int size() {
+        return size;
+    }
+
+    // Inserts the specified 'body' at the specified position
+    // in this list if 'i' is a valid index and there is no body
+    // in the list with the same name as that of 'body'.
+    // Shifts the element currently at that position (if any) and
+    // any subsequent elements to the right (adds 1 to their
+    // indices). The first element of the list has the index 0.
+    // Returns 'true' if the list was changed as a result of
+    // the call, 'false' otherwise.
+    public boolean add(int i, Body body) {
+        if (i < 0 || size < i || byName.containsKey(body.getName())) {return false;}
+        if (size == bodies.length) {
+            bodies = Arrays.copyOf(bodies, 2 * size);
+        }
+        System.arraycopy(bodies, i, bodies, i + 1, size - i);
+        bodies[i] = body;
+        size++;
+        byName.put(body.getName(), body);
+        return true;
+    }
+
+    //removes the body at index i from the list, if i is a valid index
+    //returns true if removal was done, and false otherwise (invalid index)
+    public boolean remove(int i) {
+        if (i < 0 || size <= i) {return false;}
+        byName.remove(bodies[i].getName());
+        System.arraycopy(bodies, i + 1, bodies, i, size - i - 1);
+        size--;
+        bodies[size] = null;
+        return true;
+    }
+
+    //removes a body from the list, if the list contains a body with the same name as the input body
+    //returns true if removal was done, and false otherwise (no body with the same name)
+    public boolean remove(Body body) {
+        int index = this.myGetIndex(body.getName());
+        if (index != -1) {
+            this.remove(index);
+            return true;
+        }
+        return false;
+    }
+
+    // Returns a new list that contains the same elements as this list in reverse order. The list 'this'
+    // is not changed and only the references to the bodies are copied, not their content (shallow copy).
+    public CosmicSystem reverse() {
+        CosmicSystem result = new CosmicSystem(this.getName());
+        for (int i = size - 1; i >= 0; i--) {
+            result.add(bodies[i]);
+        }
+        return result;
+    }
+
+    // Returns a readable representation with the name of the system and all bodies in order of the list.
+    // E.g.,
+    // Jupiter System:
+    // Jupiter, 1.898E27 kg, radius: 6.9911E7 m, position: [0.0,0.0,0.0] m, movement: [0.0,0.0,0.0] m/s.
+    // Io, 8.9E22 kg, radius: 1822000.0 m, position: [0.0,0.0,0.0] m, movement: [0.0,0.0,0.0] m/s.
+    //
+    //Hint: also use toString() in Body.java for this.
+    public String toString() {
+        StringBuilder result = new StringBuilder(this.getName()).append(":").append("\r\n");
+        for (int i = 0; i < size; i++) {
+            Body body = bodies[i];
+            result.append(body.getName()).append(", ").append(body.getMass()).append(" kg, radius: ").append(body.getRadius())
+                    .append(" m, position: ").append(body.getPosition()).append(" m, movement: ").append(body.getCurrentMovement())
+                    .append(" m/s.").append("\r\n");
+        }
+        return result.toString();
+    }
+
+    // Removes every N-th body (the bodies with the indices N-1, 2N-1, ...) from the list.
+    public void deleteEveryNthElement(int N) {
+        if (N <= 0) {
+            return;
+        }
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (((i+1) % N) == 0) {
+                byName.remove(bodies[i].getName());
+            } else {
+                bodies[kept++] = bodies[i];
+            }
+        }
+        Arrays.fill(bodies, kept, size, null);
+        size = kept;
+    }
+}
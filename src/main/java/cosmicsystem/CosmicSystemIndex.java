@@ -1,3 +1,5 @@
+package cosmicsystem;
+
 // A complex cosmic system regarded as an associative data structure.
 // The key is a single body and the associated value returned
 // by 'getParent' is the reference to the smallest complex cosmic system to which
@@ -1,7 +1,14 @@
+package cosmicsystem;
+
 // A binary search tree implementation of 'CosmicSystemIndex'. This binary tree
 // uses a specified comparator for sorting its keys.
+// The tree is kept balanced (AVL tree: the heights of the two subtrees of a node differ by
+// at most one), so its height is at most about 1.44 * log2(n) even if the bodies are added
+// in sorted order, and 'getParent' and 'contains' take O(log n) steps.
 
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 public class CosmicSystemIndexTree implements CosmicSystemIndex, BodyIterable {
 
@@ -85,6 +92,12 @@ public class CosmicSystemIndexTree implements CosmicSystemIndex, BodyIterable {
         //NB: An iterator, which enables to traverse in the body objects that nodes of this tree contain, is returned.
     }
 
+    @Override
+    // Returns a spliterator over all bodies of this index (see 'TreeNodeSpliterator').
+    public Spliterator<Body> spliterator() {
+        return new TreeNodeSpliterator(root, null);
+    }
+
     @Override
     // Returns a 'BodyCollection' view of all bodies of this index.
     public BodyCollection getBodies() {
@@ -220,11 +233,16 @@ class IndexTreeNullNode implements IndexTreeNode {
 
 // A node with a content.
 class IndexTreeNonNullNode implements IndexTreeNode {
+    // upper bound for the height of an AVL tree with less than 2^31 nodes.
+    private static final int MAX_HEIGHT = 48;
+
     private IndexTreeNode left;
     private IndexTreeNode right;
     private Body key;
     private ComplexCosmicSystem cs;
     private BodyComparator comparator;
+    private int height; // height of the subtree of this node (1 for a leaf).
+    private int size = 1; // number of nodes in the subtree of this node.
 
     public IndexTreeNonNullNode(Body key, ComplexCosmicSystem cs,
                                 BodyComparator comparator) {
@@ -233,6 +251,7 @@ class IndexTreeNonNullNode implements IndexTreeNode {
         this.left = IndexTreeNullNode.NIL;
         this.right = IndexTreeNullNode.NIL;
         this.comparator = comparator;
+        this.height = 1;
 
     }
 
@@ -242,18 +261,93 @@ class IndexTreeNonNullNode implements IndexTreeNode {
     //
     // Since VB is lighter than and NB is same as in interface, conditions are valid.
     //
+    // The node is inserted without recursion: the path from 'this' to the new leaf is
+    // remembered and the nodes on it are rebalanced bottom-up. Returns the new root of the
+    // subtree (a rotation may move 'this' down).
     public IndexTreeNode add(IndexTreeNode node) {
-        int comp = this.comparator.compare(this.key, node.getKey());
-        if (comp > 0) {
-            left = left.add(node);
-        } else {
-            if (comp < 0) {
-                right = right.add(node);
+        IndexTreeNonNullNode[] path = new IndexTreeNonNullNode[MAX_HEIGHT];
+        int depth = 0;
+        IndexTreeNonNullNode current = this;
+        while (true) {
+            path[depth++] = current;
+            int comp = this.comparator.compare(current.key, node.getKey());
+            if (comp == 0) {
+                return this;
+            }
+            IndexTreeNode child = comp > 0 ? current.left : current.right;
+            if (child == IndexTreeNullNode.NIL) {
+                if (comp > 0) {
+                    current.left = node;
+                } else {
+                    current.right = node;
+                }
+                break;
+            }
+            current = (IndexTreeNonNullNode) child;
+        }
+
+        for (int i = depth - 1; i > 0; i--) {
+            IndexTreeNonNullNode parent = path[i - 1];
+            IndexTreeNode balanced = path[i].rebalance();
+            if (parent.left == path[i]) {
+                parent.left = balanced;
+            } else {
+                parent.right = balanced;
+            }
+        }
+        return path[0].rebalance();
+    }
+
+    // Updates the height of this node and rotates if the heights of the subtrees
+    // differ by more than one. Returns the new root of the subtree.
+    private IndexTreeNode rebalance() {
+        int balance = heightOf(left) - heightOf(right);
+        if (balance > 1) {
+            IndexTreeNonNullNode l = (IndexTreeNonNullNode) left;
+            if (heightOf(l.left) < heightOf(l.right)) {
+                left = l.rotateLeft();
+            }
+            return rotateRight();
+        }
+        if (balance < -1) {
+            IndexTreeNonNullNode r = (IndexTreeNonNullNode) right;
+            if (heightOf(r.right) < heightOf(r.left)) {
+                right = r.rotateRight();
             }
+            return rotateLeft();
         }
+        update();
         return this;
     }
 
+    private IndexTreeNonNullNode rotateRight() {
+        IndexTreeNonNullNode l = (IndexTreeNonNullNode) left;
+        left = l.right;
+        l.right = this;
+        update();
+        l.update();
+        return l;
+    }
+
+    private IndexTreeNonNullNode rotateLeft() {
+        IndexTreeNonNullNode r = (IndexTreeNonNullNode) right;
+        right = r.left;
+        r.left = this;
+        update();
+        r.update();
+        return r;
+    }
+
+    // Recomputes height and size of the subtree from the children.
+    private void update() {
+        height = 1 + Math.max(heightOf(left), heightOf(right));
+        size = 1 + left.size() + right.size();
+    }
+
+    private static int heightOf(IndexTreeNode node) {
+        return node == IndexTreeNullNode.NIL ? 0 : ((IndexTreeNonNullNode) node).height;
+    }
+
 
     //VB: A cosmic system which contains the searched body is included in the subtree of this object.
     //NB: If there's a node with searched body as key in the subtree of this object, the parent of this
@@ -262,15 +356,15 @@ class IndexTreeNonNullNode implements IndexTreeNode {
     // Since NB is tighter than in interface, conditions are not valid, although NB is same as in interface.
     //
     public ComplexCosmicSystem get(Body body) {
-        if (key.equals(body)) {
-            return cs;
-        }
-
-        if (this.comparator.compare(this.key, body) > 0) {
-            return left.get(body);
-        } else {
-            return right.get(body);
+        IndexTreeNode current = this;
+        while (current != IndexTreeNullNode.NIL) {
+            IndexTreeNonNullNode node = (IndexTreeNonNullNode) current;
+            if (node.key.equals(body)) {
+                return node.cs;
+            }
+            current = this.comparator.compare(node.key, body) > 0 ? node.left : node.right;
         }
+        return null;
     }
 
 
@@ -324,7 +418,10 @@ class IndexTreeNonNullNode implements IndexTreeNode {
     //
     // Since VB and NB are same as in interface, conditions are valid.
     //
-    public int size() { return 1 + left.size() + right.size(); }
+    public int size() { return size; }
+
+    IndexTreeNode getLeft() { return left; }
+    IndexTreeNode getRight() { return right; }
 
 }
 
@@ -359,6 +456,66 @@ class TreeNodeIterator implements BodyIterator {
 
 }
 
+// Splits the tree at subtree boundaries: the bodies of 'subtree' followed by the key of 'last'
+// (if not 'null') are split into the left subtree with the root key, and the right subtree with
+// 'last'. The sizes of the parts are known from the sizes of the subtrees.
+class TreeNodeSpliterator implements Spliterator<Body> {
+    private IndexTreeNode subtree;
+    private IndexTreeNonNullNode last;
+    private TreeNodeIterator iterator; // not 'null' after the traversal has started.
+    private long size;
+
+    TreeNodeSpliterator(IndexTreeNode subtree, IndexTreeNonNullNode last) {
+        this.subtree = subtree;
+        this.last = last;
+        this.size = subtree.size() + (last == null ? 0 : 1);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Body> action) {
+        if (iterator == null) {
+            iterator = subtree.iterator(new TreeNodeIterator(null, null));
+        }
+        Body body;
+        if (iterator.hasNext()) {
+            body = iterator.next();
+        } else if (last != null) {
+            body = last.getKey();
+            last = null;
+        } else {
+            return false;
+        }
+        size--;
+        action.accept(body);
+        return true;
+    }
+
+    @Override
+    public Spliterator<Body> trySplit() {
+        if (iterator != null || subtree == IndexTreeNullNode.NIL) {
+            return null;
+        }
+        IndexTreeNonNullNode node = (IndexTreeNonNullNode) subtree;
+        if (node.getLeft() == IndexTreeNullNode.NIL && node.getRight() == IndexTreeNullNode.NIL) {
+            return null;
+        }
+        Spliterator<Body> prefix = new TreeNodeSpliterator(node.getLeft(), node);
+        subtree = node.getRight();
+        size -= prefix.estimateSize();
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return size;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | DISTINCT | NONNULL;
+    }
+}
+
 class TreeBodyCollection implements BodyCollection {
 
     private CosmicSystemIndexTree tree;
@@ -0,0 +1,388 @@
+package cosmicsystem;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+// An open addressing hash map with Robin Hood probing: on a collision, an entry which is
+// closer to its home slot gives way to the entry which is further away, so all probe
+// sequences stay short even when the table is 85% full. The number of slots is a power of two
+// and doubles when the table gets too full.
+// Removed entries (see 'theMapIterator.remove') leave a tombstone which keeps its probe
+// distance, so removing never moves other entries (iteration is not disturbed) and
+// lookups stay correct; tombstones are reused by later insertions and dropped on rehashing.
+public class CosmicSystemMap implements CosmicSystemIndex, myMap, BodyIterable {
+    private static final int MIN_CAPACITY = 16;
+    private static final double MAX_LOAD = 0.85;
+
+    private final ComplexCosmicSystem css;
+    private Body[] ks;
+    private ComplexCosmicSystem[] vs;
+    // distance of the entry (or tombstone) in a slot from its home slot, -1 for an empty slot.
+    private int[] ds;
+    private int shift; // 32 - log2(number of slots)
+    private int count;
+    private int tombstones;
+    private int kols; // entries which are not in their home slot.
+
+
+    // Creates a hash map from the specified 'system'.
+    // The resulting map has multiple (key, value) pairs, one for each
+    // body of 'system'. The value is the reference
+    // to the system (only the direct parent) to which the body belongs.
+    public CosmicSystemMap(ComplexCosmicSystem system) {
+        css = system;
+        kols = 0;
+
+        allocate(capacityFor(system.numberOfBodies()));
+        system.forEachBody(body -> put(body, system.getParent(body)));
+    }
+
+    public void put(Body k, ComplexCosmicSystem v) {
+        if (k == null || v == null) {
+            return;
+        }
+        if (count + tombstones + 1 > MAX_LOAD * ks.length) {
+            rehash(capacityFor(count + 1));
+        }
+        int mask = ks.length - 1;
+        int i = home(k);
+        int d = 0;
+        while (true) {
+            if (ds[i] == -1) {
+                place(i, k, v, d);
+                count++;
+                return;
+            }
+            if (ks[i] != null && ds[i] == d && ks[i].equals(k)) {
+                vs[i] = v;
+                return;
+            }
+            if (ds[i] < d) {
+                // 'k' is not contained (it would have been found before this slot).
+                if (ks[i] == null) {
+                    tombstones--;
+                    place(i, k, v, d);
+                } else {
+                    insertDisplacing(i, k, v, d);
+                }
+                count++;
+                return;
+            }
+            i = (i + 1) & mask;
+            d++;
+        }
+    }
+
+    public ComplexCosmicSystem get(Body k) {
+        int i = find(k);
+        return i == -1 ? null : vs[i];
+    }
+
+    // Removes the entry with the key 'k' and returns its value, or 'null' if there is no such entry.
+    public ComplexCosmicSystem remove(Body k) {
+        int i = find(k);
+        if (i == -1) {
+            return null;
+        }
+        ComplexCosmicSystem old = vs[i];
+        removeAt(i);
+        return old;
+    }
+
+    // Returns the slot of the entry with the key 'k', or -1 if there is no such entry.
+    private int find(Body k) {
+        if (k == null) {
+            return -1;
+        }
+        int mask = ks.length - 1;
+        int i = home(k);
+        for (int d = 0; ds[i] >= d; d++) {
+            if (ks[i] != null && ds[i] == d && ks[i].equals(k)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Puts (k, v) into the occupied slot 'i' and moves the entry of that slot (and so on) further.
+    private void insertDisplacing(int i, Body k, ComplexCosmicSystem v, int d) {
+        int mask = ks.length - 1;
+        while (true) {
+            if (ds[i] == -1 || (ks[i] == null && ds[i] < d)) {
+                if (ks[i] == null && ds[i] != -1) {
+                    tombstones--;
+                }
+                place(i, k, v, d);
+                return;
+            }
+            if (ds[i] < d) {
+                Body k2 = ks[i];
+                ComplexCosmicSystem v2 = vs[i];
+                int d2 = ds[i];
+                if (d2 > 0) {
+                    kols--;
+                }
+                place(i, k, v, d);
+                k = k2;
+                v = v2;
+                d = d2;
+            }
+            i = (i + 1) & mask;
+            d++;
+        }
+    }
+
+    private void place(int i, Body k, ComplexCosmicSystem v, int d) {
+        ks[i] = k;
+        vs[i] = v;
+        ds[i] = d;
+        if (d > 0) {
+            kols++;
+        }
+    }
+
+    // Replaces the entry in slot 'i' by a tombstone.
+    private void removeAt(int i) {
+        if (ds[i] > 0) {
+            kols--;
+        }
+        ks[i] = null;
+        vs[i] = null;
+        count--;
+        tombstones++;
+    }
+
+    // Fibonacci hashing: the upper bits of the product are well mixed even for similar hash codes.
+    private int home(Body k) {
+        return (k.hashCode() * 0x9E3779B9) >>> shift;
+    }
+
+    private static int capacityFor(int entries) {
+        int capacity = MIN_CAPACITY;
+        while (entries > MAX_LOAD * capacity) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    private void allocate(int capacity) {
+        ks = new Body[capacity];
+        vs = new ComplexCosmicSystem[capacity];
+        ds = new int[capacity];
+        Arrays.fill(ds, -1);
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        count = 0;
+        tombstones = 0;
+        kols = 0;
+    }
+
+    // Inserts all entries into a new table with 'capacity' slots (without tombstones).
+    private void rehash(int capacity) {
+        Body[] oldKs = ks;
+        ComplexCosmicSystem[] oldVs = vs;
+        allocate(capacity);
+        for (int i = 0; i < oldKs.length; i++) {
+            if (oldKs[i] != null) {
+                put(oldKs[i], oldVs[i]);
+            }
+        }
+    }
+
+    // Returns the number of entries which are currently not in their home slot
+    // (i.e. whose key collided with another key when it was inserted).
+    public int countCollisions() {
+        return kols;
+    }
+
+
+    public int size() {
+        return count;
+    }
+
+    public boolean containsKey(Body k) {
+        return find(k) != -1;
+    }
+
+    // Returns the 'ComplexCosmicSystem' (value) with which a
+    // body (key) is associated. If 'b' is not contained, 'null'
+    // is returned.
+    public ComplexCosmicSystem getParent(Body b) {
+        return get(b);
+    }
+
+    // Returns 'true' if the specified 'b' is listed
+    // in the index.
+    public boolean contains(Body b) {
+        return containsKey(b);
+    }
+
+    public Body[] toArray() {
+        int ind = 0;
+        Body[] array = new Body[count];
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != null) {
+                array[ind] = new Body(ks[i]);
+                ind++;
+            }
+        }
+        return array;
+    }
+
+    public BodyCollection getBodies() {
+        return new myCollection(this);
+    }
+
+    public String toString() {
+        StringBuilder output = new StringBuilder();
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != null) {
+                output.append(ks[i].getName()).append("\n");
+            }
+        }
+        return output.toString();
+    }
+
+    public BodyIterator iterator() {
+        return new CosmicSystemMap.theMapIterator(this);
+    }
+
+    @Override
+    public void forEachBody(Consumer<Body> action) {
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != null) {
+                action.accept(ks[i]);
+            }
+        }
+    }
+
+    // Returns a spliterator which splits the table into ranges of slots (see 'theMapSpliterator').
+    @Override
+    public Spliterator<Body> spliterator() {
+        return new theMapSpliterator(0, ks.length, count);
+    }
+
+    // Iterates over the slots 'index'..'fence'-1. When it is split, the entries in the lower
+    // half of the range are counted, so the sizes of both parts are exact.
+    // The map must not be changed while a spliterator is used.
+    private class theMapSpliterator implements Spliterator<Body> {
+        private int index;
+        private int fence;
+        private long size;
+
+        theMapSpliterator(int index, int fence, long size) {
+            this.index = index;
+            this.fence = fence;
+            this.size = size;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Body> action) {
+            while (index < fence) {
+                Body k = ks[index++];
+                if (k != null) {
+                    size--;
+                    action.accept(k);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Body> action) {
+            for (int i = index; i < fence; i++) {
+                if (ks[i] != null) {
+                    action.accept(ks[i]);
+                }
+            }
+            index = fence;
+            size = 0;
+        }
+
+        @Override
+        public Spliterator<Body> trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (size < 2 || mid <= index) {
+                return null;
+            }
+            long lower = 0;
+            for (int i = index; i < mid; i++) {
+                if (ks[i] != null) {
+                    lower++;
+                }
+            }
+            if (lower == 0) { // nothing to split off, continue with the upper half.
+                index = mid;
+                return trySplit();
+            }
+            if (lower == size) {
+                fence = mid;
+                return trySplit();
+            }
+            Spliterator<Body> prefix = new theMapSpliterator(index, mid, lower);
+            index = mid;
+            size -= lower;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return size;
+        }
+
+        @Override
+        public int characteristics() {
+            return SIZED | SUBSIZED | DISTINCT | NONNULL;
+        }
+    }
+
+    // Iterates over the slots in order. Entries must not be added while iterating
+    // (the table could be rehashed); removing them with 'remove' is fine.
+    public class theMapIterator implements BodyIterator {
+
+        CosmicSystemMap map;
+        int ind;
+        boolean nextHasBeenCalled = false;
+
+
+        public theMapIterator(CosmicSystemMap map1) {
+            map = map1;
+            ind = 0;
+        }
+
+
+        @Override
+        public boolean hasNext() {
+            while (ind < map.ks.length && map.ks[ind] == null) {
+                ind++;
+            }
+            return ind < map.ks.length;
+        }
+
+
+        @Override
+        public Body next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            } else {
+                nextHasBeenCalled = true;
+                Body res = map.ks[ind];
+                ind++;
+                return res;
+            }
+        }
+
+        public void remove() {
+            if (!nextHasBeenCalled) {
+                throw new IllegalStateException();
+            } else {
+                map.removeAt(ind - 1);
+            }
+
+            nextHasBeenCalled = false;
+        }
+    }
+}
@@ -0,0 +1,536 @@
+package cosmicsystem;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+// A spatial index of the bodies of a system: an octree over the positions of the bodies, with
+// up to 'CAPACITY' bodies per leaf cell. Besides the queries of 'CosmicSystemIndex' (the value
+// of a body is its direct parent system, like in 'CosmicSystemMap') it finds the bodies within
+// a radius or a box and the k nearest bodies to a point, visiting only the cells which can
+// contain results.
+//
+// The index stores the position of every body as of the last 'update'. Moving bodies does not
+// change the index until 'update' is called (e.g. once per simulation step): a body which is
+// still inside its leaf cell only gets its stored position updated, only bodies which left
+// their cell are moved to another cell. The root cell grows if a body leaves it.
+//
+// Like the other indexes, bodies are compared with 'Body.equals' (same name and mass), so
+// 'contains', 'getParent', 'add' and 'remove' also find a body by an equal copy. The position
+// which is indexed is always the one of the body object that was added.
+public class CosmicSystemOctree implements CosmicSystemIndex, BodyIterable {
+
+    private static final int CAPACITY = 8;
+    // leaf cells this many levels below the first root cell are not split any further (e.g. many
+    // bodies at the same position).
+    private static final int MAX_DEPTH = 32;
+
+    private Node root;
+    // half side length of the smallest cells; fixed, so growing the root does not allow deeper trees.
+    private final double minHalf;
+    private final IdentityHashMap<Body, Entry> entries = new IdentityHashMap<>();
+    // entries by name, entries with the same name are chained with 'Entry.sameName'.
+    private final HashMap<String, Entry> names = new HashMap<>();
+
+    // Creates an index of all bodies of 'system'.
+    public CosmicSystemOctree(ComplexCosmicSystem system) {
+        Body[] bodies = Simulation.toArray(system);
+        double minX = 0, minY = 0, minZ = 0, maxX = 0, maxY = 0, maxZ = 0;
+        for (int i = 0; i < bodies.length; i++) {
+            Vector3 p = bodies[i].getPosition();
+            if (i == 0 || p.getX() < minX) minX = p.getX();
+            if (i == 0 || p.getY() < minY) minY = p.getY();
+            if (i == 0 || p.getZ() < minZ) minZ = p.getZ();
+            if (i == 0 || p.getX() > maxX) maxX = p.getX();
+            if (i == 0 || p.getY() > maxY) maxY = p.getY();
+            if (i == 0 || p.getZ() > maxZ) maxZ = p.getZ();
+        }
+        double half = Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ)) / 2;
+        half = half > 0 ? half * 1.0001 : 1;
+        root = new Node(null, (minX + maxX) / 2, (minY + maxY) / 2, (minZ + maxZ) / 2, half);
+        minHalf = Math.scalb(half, -MAX_DEPTH);
+        for (Body body : bodies) {
+            add(body, system.getParent(body));
+        }
+    }
+
+    // Adds 'body' with its system 'parent' to the index, or changes its system if it is
+    // already indexed. Throws an 'IllegalArgumentException' if the position is not finite.
+    public void add(Body body, ComplexCosmicSystem parent) {
+        Entry entry = find(body);
+        if (entry != null) {
+            entry.parent = parent;
+            return;
+        }
+        entry = new Entry(body, parent);
+        entry.store();
+        insert(entry);
+        entries.put(body, entry);
+        entry.sameName = names.put(body.getName(), entry);
+    }
+
+    // Removes 'body' from the index. Returns 'true' if it was indexed.
+    public boolean remove(Body body) {
+        Entry entry = find(body);
+        if (entry == null) {
+            return false;
+        }
+        entries.remove(entry.body);
+        forget(entry);
+        unlink(entry);
+        return true;
+    }
+
+    // Returns the entry of 'body' or of a body equal to it, or 'null' if there is none.
+    private Entry find(Body body) {
+        Entry entry = entries.get(body);
+        if (entry == null) {
+            entry = names.get(body.getName());
+            while (entry != null && !entry.body.equals(body)) {
+                entry = entry.sameName;
+            }
+        }
+        return entry;
+    }
+
+    // Removes 'entry' from the chain of its name.
+    private void forget(Entry entry) {
+        String name = entry.body.getName();
+        Entry first = names.get(name);
+        if (first == entry) {
+            if (entry.sameName == null) {
+                names.remove(name);
+            } else {
+                names.put(name, entry.sameName);
+            }
+        } else {
+            Entry e = first;
+            while (e.sameName != entry) {
+                e = e.sameName;
+            }
+            e.sameName = entry.sameName;
+        }
+        entry.sameName = null;
+    }
+
+    // Brings the index up to date with the current positions of all bodies. Throws an
+    // 'IllegalArgumentException' if a position is not finite, the body then stays indexed at its
+    // old position.
+    public void update() {
+        for (Entry entry : entries.values()) {
+            update(entry);
+        }
+    }
+
+    // Brings the index up to date with the current position of 'body' (see 'update()').
+    public void update(Body body) {
+        Entry entry = find(body);
+        if (entry != null) {
+            update(entry);
+        }
+    }
+
+    private void update(Entry entry) {
+        entry.store();
+        if (!entry.leaf.contains(entry.x, entry.y, entry.z)) {
+            unlink(entry);
+            insert(entry);
+        }
+    }
+
+    // Returns the bodies whose distance from 'center' is at most 'radius'.
+    public Body[] withinRadius(Vector3 center, double radius) {
+        ArrayList<Body> result = new ArrayList<>();
+        withinRadius(center, radius, result::add);
+        return result.toArray(new Body[0]);
+    }
+
+    // Calls 'action' for every body whose distance from 'center' is at most 'radius'.
+    public void withinRadius(Vector3 center, double radius, Consumer<Body> action) {
+        double x = center.getX(), y = center.getY(), z = center.getZ();
+        double r2 = radius * radius;
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (node.size == 0 || node.distanceSquared(x, y, z) > r2) {
+                continue;
+            }
+            if (node.children == null) {
+                for (int i = 0; i < node.count; i++) {
+                    Entry e = node.entries[i];
+                    double dx = e.x - x, dy = e.y - y, dz = e.z - z;
+                    if (dx * dx + dy * dy + dz * dz <= r2) {
+                        action.accept(e.body);
+                    }
+                }
+            } else {
+                for (Node child : node.children) {
+                    stack.push(child);
+                }
+            }
+        }
+    }
+
+    // Returns the bodies inside the box from 'min' to 'max' (boundaries included).
+    public Body[] withinBox(Vector3 min, Vector3 max) {
+        ArrayList<Body> result = new ArrayList<>();
+        withinBox(min, max, result::add);
+        return result.toArray(new Body[0]);
+    }
+
+    // Calls 'action' for every body inside the box from 'min' to 'max' (boundaries included).
+    public void withinBox(Vector3 min, Vector3 max, Consumer<Body> action) {
+        double x0 = min.getX(), y0 = min.getY(), z0 = min.getZ();
+        double x1 = max.getX(), y1 = max.getY(), z1 = max.getZ();
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (node.size == 0
+                    || node.cx + node.half < x0 || node.cx - node.half > x1
+                    || node.cy + node.half < y0 || node.cy - node.half > y1
+                    || node.cz + node.half < z0 || node.cz - node.half > z1) {
+                continue;
+            }
+            if (node.children == null) {
+                for (int i = 0; i < node.count; i++) {
+                    Entry e = node.entries[i];
+                    if (e.x >= x0 && e.x <= x1 && e.y >= y0 && e.y <= y1 && e.z >= z0 && e.z <= z1) {
+                        action.accept(e.body);
+                    }
+                }
+            } else {
+                for (Node child : node.children) {
+                    stack.push(child);
+                }
+            }
+        }
+    }
+
+    // Returns the 'k' bodies nearest to 'point' (fewer if the index has less than 'k' bodies),
+    // sorted by distance, the nearest first.
+    public Body[] nearest(Vector3 point, int k) {
+        Nearest search = new Nearest(point.getX(), point.getY(), point.getZ(), Math.min(k, size()));
+        if (search.k > 0) {
+            search.visit(root);
+        }
+        return Arrays.copyOf(search.bodies, search.found);
+    }
+
+    // k nearest neighbour search: visits the cells depth-first, nearer children first, and skips
+    // cells which are farther away than the k-th nearest body found so far.
+    private static class Nearest {
+        final double x, y, z;
+        final int k;
+        // the nearest bodies found so far, sorted by distance.
+        final Body[] bodies;
+        final double[] d2;
+        int found;
+
+        Nearest(double x, double y, double z, int k) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.k = Math.max(k, 0);
+            this.bodies = new Body[this.k];
+            this.d2 = new double[this.k];
+        }
+
+        double bound() {
+            return found < k ? Double.POSITIVE_INFINITY : d2[k - 1];
+        }
+
+        void visit(Node node) {
+            if (node.size == 0 || node.distanceSquared(x, y, z) > bound()) {
+                return;
+            }
+            if (node.children == null) {
+                for (int i = 0; i < node.count; i++) {
+                    Entry e = node.entries[i];
+                    double dx = e.x - x, dy = e.y - y, dz = e.z - z;
+                    offer(e.body, dx * dx + dy * dy + dz * dz);
+                }
+                return;
+            }
+            // children sorted by their distance (insertion sort of 8 elements).
+            Node[] order = node.children.clone();
+            double[] dist = new double[8];
+            for (int i = 0; i < 8; i++) {
+                Node c = order[i];
+                double d = c.distanceSquared(x, y, z);
+                int j = i;
+                while (j > 0 && dist[j - 1] > d) {
+                    dist[j] = dist[j - 1];
+                    order[j] = order[j - 1];
+                    j--;
+                }
+                dist[j] = d;
+                order[j] = c;
+            }
+            for (Node child : order) {
+                visit(child);
+            }
+        }
+
+        void offer(Body body, double d) {
+            if (d >= bound()) {
+                return;
+            }
+            int i = found < k ? found++ : k - 1;
+            while (i > 0 && d2[i - 1] > d) {
+                d2[i] = d2[i - 1];
+                bodies[i] = bodies[i - 1];
+                i--;
+            }
+            d2[i] = d;
+            bodies[i] = body;
+        }
+    }
+
+    // Inserts 'entry' (with its stored position) into the leaf cell which contains it.
+    private void insert(Entry entry) {
+        double x = entry.x, y = entry.y, z = entry.z;
+        while (!root.contains(x, y, z)) {
+            grow(x, y, z);
+        }
+        Node node = root;
+        while (node.children != null) {
+            node.size++;
+            node = node.children[node.octant(x, y, z)];
+        }
+        node.put(entry);
+        node.size++;
+        if (node.count > CAPACITY && node.half > minHalf) {
+            node.split(minHalf);
+        }
+    }
+
+    // Removes 'entry' from its leaf cell and merges cells which became small enough.
+    private void unlink(Entry entry) {
+        Node leaf = entry.leaf;
+        for (int i = 0; i < leaf.count; i++) {
+            if (leaf.entries[i] == entry) {
+                leaf.entries[i] = leaf.entries[--leaf.count];
+                leaf.entries[leaf.count] = null;
+                break;
+            }
+        }
+        entry.leaf = null;
+        Node merge = null;
+        for (Node node = leaf; node != null; node = node.parent) {
+            node.size--;
+            if (node.children != null && node.size <= CAPACITY) {
+                merge = node;
+            }
+        }
+        if (merge != null) {
+            merge.merge();
+        }
+    }
+
+    // Doubles the root cell towards the point (x, y, z); the old root becomes one of its children.
+    private void grow(double x, double y, double z) {
+        Node old = root;
+        double h = old.half;
+        root = new Node(null, old.cx + (x >= old.cx ? h : -h), old.cy + (y >= old.cy ? h : -h),
+                old.cz + (z >= old.cz ? h : -h), 2 * h);
+        root.size = old.size;
+        root.children = new Node[8];
+        int octant = root.octant(old.cx, old.cy, old.cz);
+        for (int i = 0; i < 8; i++) {
+            root.children[i] = i == octant ? old : root.child(i);
+        }
+        old.parent = root;
+    }
+
+    // Returns the system with which 'b' is associated, or 'null' if it is not indexed.
+    public ComplexCosmicSystem getParent(Body b) {
+        Entry entry = b == null ? null : find(b);
+        return entry == null ? null : entry.parent;
+    }
+
+    public boolean contains(Body b) {
+        return b != null && find(b) != null;
+    }
+
+    public BodyCollection getBodies() {
+        return new myCollection(this);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Body[] toArray() {
+        Body[] array = new Body[entries.size()];
+        int i = 0;
+        for (Body body : entries.keySet()) {
+            array[i++] = new Body(body);
+        }
+        return array;
+    }
+
+    @Override
+    public void forEachBody(Consumer<Body> action) {
+        for (Body body : entries.keySet()) {
+            action.accept(body);
+        }
+    }
+
+    public BodyIterator iterator() {
+        Iterator<Entry> values = entries.values().iterator();
+        return new BodyIterator() {
+            Entry current;
+
+            @Override
+            public boolean hasNext() {
+                return values.hasNext();
+            }
+
+            @Override
+            public Body next() {
+                current = values.next();
+                return current.body;
+            }
+
+            // Removes the body returned by the last 'next()' from the index.
+            @Override
+            public void remove() {
+                if (current == null) {
+                    throw new IllegalStateException();
+                }
+                values.remove();
+                forget(current);
+                unlink(current);
+                current = null;
+            }
+        };
+    }
+
+    // An indexed body with its system and the position stored at the last update.
+    private static class Entry {
+        final Body body;
+        ComplexCosmicSystem parent;
+        Entry sameName; // next entry with the same name
+        double x, y, z;
+        Node leaf;
+
+        Entry(Body body, ComplexCosmicSystem parent) {
+            this.body = body;
+            this.parent = parent;
+        }
+
+        // Stores the current position of the body. Throws an 'IllegalArgumentException' if it is
+        // not finite, the entry then keeps its old position (and its leaf).
+        void store() {
+            Vector3 p = body.getPosition();
+            if (!Double.isFinite(p.getX()) || !Double.isFinite(p.getY()) || !Double.isFinite(p.getZ())) {
+                throw new IllegalArgumentException("Position of " + body.getName() + " is not finite");
+            }
+            x = p.getX();
+            y = p.getY();
+            z = p.getZ();
+        }
+    }
+
+    // A cubic cell with center (cx, cy, cz) and half side length 'half'. A leaf has no children
+    // and holds its entries, an inner cell has 8 children and no entries.
+    private static class Node {
+        final double cx, cy, cz, half;
+        Node parent;
+        Node[] children;
+        Entry[] entries;
+        int count; // entries of a leaf.
+        int size;  // entries in the subtree.
+
+        Node(Node parent, double cx, double cy, double cz, double half) {
+            this.parent = parent;
+            this.cx = cx;
+            this.cy = cy;
+            this.cz = cz;
+            this.half = half;
+        }
+
+        // (the cell includes its lower boundaries, but not its upper ones.)
+        boolean contains(double x, double y, double z) {
+            return x >= cx - half && x < cx + half && y >= cy - half && y < cy + half
+                    && z >= cz - half && z < cz + half;
+        }
+
+        int octant(double x, double y, double z) {
+            return (x >= cx ? 1 : 0) | (y >= cy ? 2 : 0) | (z >= cz ? 4 : 0);
+        }
+
+        Node child(int octant) {
+            double h = half / 2;
+            return new Node(this, cx + ((octant & 1) != 0 ? h : -h), cy + ((octant & 2) != 0 ? h : -h),
+                    cz + ((octant & 4) != 0 ? h : -h), h);
+        }
+
+        // Squared distance from the point to the nearest point of this cell (0 if inside).
+        double distanceSquared(double x, double y, double z) {
+            double dx = Math.max(Math.abs(x - cx) - half, 0);
+            double dy = Math.max(Math.abs(y - cy) - half, 0);
+            double dz = Math.max(Math.abs(z - cz) - half, 0);
+            return dx * dx + dy * dy + dz * dz;
+        }
+
+        void put(Entry entry) {
+            if (entries == null) {
+                entries = new Entry[CAPACITY + 1];
+            } else if (count == entries.length) {
+                entries = Arrays.copyOf(entries, 2 * count);
+            }
+            entries[count++] = entry;
+            entry.leaf = this;
+        }
+
+        // Turns this leaf into an inner cell and distributes its entries to the children. Children
+        // with a half side length of at most 'minHalf' are not split further.
+        void split(double minHalf) {
+            children = new Node[8];
+            for (int i = 0; i < 8; i++) {
+                children[i] = child(i);
+            }
+            for (int i = 0; i < count; i++) {
+                Entry e = entries[i];
+                Node c = children[octant(e.x, e.y, e.z)];
+                c.put(e);
+                c.size++;
+            }
+            entries = null;
+            count = 0;
+            // all entries may have gone to the same child.
+            for (Node c : children) {
+                if (c.count > CAPACITY && c.half > minHalf) {
+                    c.split(minHalf);
+                }
+            }
+        }
+
+        // Turns this inner cell into a leaf with all entries of its subtree.
+        void merge() {
+            entries = null;
+            count = 0;
+            ArrayDeque<Node> stack = new ArrayDeque<>(Arrays.asList(children));
+            while (!stack.isEmpty()) {
+                Node n = stack.pop();
+                if (n.children != null) {
+                    for (Node c : n.children) {
+                        stack.push(c);
+                    }
+                } else {
+                    for (int i = 0; i < n.count; i++) {
+                        put(n.entries[i]);
+                    }
+                }
+            }
+            children = null;
+        }
+    }
+}
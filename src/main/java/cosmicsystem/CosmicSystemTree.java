@@ -0,0 +1,310 @@
+package cosmicsystem;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+//This class represents a binary search tree for objects of class 'CosmicSystem'
+//The tree is kept balanced (AVL tree: the heights of the two subtrees of a node differ by at most one).
+//Since the tree is used through its root object, rotations swap the entries of the nodes
+//instead of replacing the root node.
+public class CosmicSystemTree {
+    private String key;
+    private CosmicSystem value;
+    private CosmicSystemTree left, right;
+    private int height; // height of the subtree of this node (0 for an empty tree).
+
+    public CosmicSystemTree(String k, CosmicSystem v) {
+        key = k;
+        value = v;
+        height = k == null ? 0 : 1;
+    }
+
+
+    // Adds a system of bodies to the tree. Since the keys of the tree are the names of bodies,
+    // adding a system adds multiple (key, value) pairs to the tree, one for each body of the
+    // system, with the same value, i.e., reference to the cosmic system.
+    // An attempt to add a system with a body that already exists in the tree
+    // leaves the tree unchanged and the returned value would be 'false'.
+    // For example, it is not allowed to have a system with the bodies "Earth" and "Moon" and another
+    // system with the bodies "Jupiter" and "Moon" indexed by the tree, since "Moon" is not unique.
+    // The method returns 'true' if the tree was changed as a result of the call and
+    // 'false' otherwise.
+    public boolean add(CosmicSystem system) {
+        Body[] bodies = system.toArray();
+        for (Body body : bodies) {
+            if (this.get(body.getName()) != null ) {
+                return false;
+            }
+        }
+        for (Body body : bodies) {
+            this.myPut(body.getName(), system);
+        }
+        return true;
+    }
+
+    // Adds all 'systems' at once, with the same rules as 'add' (a system is skipped if one of
+    // its bodies has the name of a body that is already indexed or added by an earlier system
+    // of 'systems', so a system passed twice is added once). The names are sorted once
+    // and the tree is rebuilt perfectly balanced from the new and the existing entries,
+    // which takes O(n log n) steps for n names.
+    // Returns the number of systems that were added.
+    public int addAll(CosmicSystem... systems) {
+        HashMap<String, CosmicSystem> added = new HashMap<>();
+        int count = 0;
+        for (CosmicSystem system : systems) {
+            Body[] bodies = system.toArray();
+            boolean unique = true;
+            for (Body body : bodies) {
+                CosmicSystem other = added.get(body.getName());
+                if (other != null || this.get(body.getName()) != null) {
+                    unique = false;
+                    break;
+                }
+            }
+            if (unique && bodies.length > 0) {
+                for (Body body : bodies) {
+                    added.put(body.getName(), system);
+                }
+                count++;
+            }
+        }
+        if (added.isEmpty()) {
+            return 0;
+        }
+
+        String[] newKeys = added.keySet().toArray(new String[0]);
+        Arrays.sort(newKeys);
+        int old = this.numberOfBodies();
+        String[] oldKeys = new String[old];
+        CosmicSystem[] oldValues = new CosmicSystem[old];
+        if (old > 0) {
+            this.collect(oldKeys, oldValues, 0);
+        }
+
+        // merge the (sorted) existing entries with the new ones. Like 'add', a name which is
+        // already indexed keeps its existing entry, so every name is stored only once.
+        String[] keys = new String[old + newKeys.length];
+        CosmicSystem[] values = new CosmicSystem[keys.length];
+        int i = 0, j = 0, k = 0;
+        while (i < old || j < newKeys.length) {
+            int cmp = i == old ? 1 : j == newKeys.length ? -1 : oldKeys[i].compareTo(newKeys[j]);
+            if (cmp <= 0) {
+                keys[k] = oldKeys[i];
+                values[k] = oldValues[i];
+                i++;
+                if (cmp == 0) {
+                    j++;
+                }
+            } else {
+                keys[k] = newKeys[j];
+                values[k] = added.get(newKeys[j]);
+                j++;
+            }
+            k++;
+        }
+        this.build(keys, values, 0, k - 1);
+        return count;
+    }
+
+    public void myPut(String k, CosmicSystem v){
+        int cmp = this.myCompare(k);
+        if (key == null) {
+            key = k;
+            value = v;
+            height = 1;
+            return;
+        }
+        else if (cmp < 0) {
+            if (left != null) {
+                left.myPut(k, v);
+
+        } else {
+            left = new CosmicSystemTree(k, v);
+        }
+        }
+        else if (cmp > 0) {
+            if (right != null) {
+                right.myPut(k, v);
+
+            } else {
+                right = new CosmicSystemTree(k, v);
+            }
+        }
+        this.rebalance();
+    }
+
+    // Writes the entries of this tree sorted by key into 'keys' and 'values' starting
+    // at 'from' and returns the index after the last entry.
+    private int collect(String[] keys, CosmicSystem[] values, int from) {
+        if (left != null) {
+            from = left.collect(keys, values, from);
+        }
+        keys[from] = key;
+        values[from] = value;
+        from++;
+        if (right != null) {
+            from = right.collect(keys, values, from);
+        }
+        return from;
+    }
+
+    // Makes this node the root of a perfectly balanced tree of the entries 'lo'..'hi' ('lo' <= 'hi').
+    private void build(String[] keys, CosmicSystem[] values, int lo, int hi) {
+        int mid = (lo + hi) >>> 1;
+        key = keys[mid];
+        value = values[mid];
+        left = null;
+        right = null;
+        if (lo < mid) {
+            left = new CosmicSystemTree(null, null);
+            left.build(keys, values, lo, mid - 1);
+        }
+        if (mid < hi) {
+            right = new CosmicSystemTree(null, null);
+            right.build(keys, values, mid + 1, hi);
+        }
+        this.updateHeight();
+    }
+
+    // Rotates if the heights of the subtrees differ by more than one.
+    private void rebalance() {
+        int balance = heightOf(left) - heightOf(right);
+        if (balance > 1) {
+            if (heightOf(left.left) < heightOf(left.right)) {
+                left.rotateLeft();
+            }
+            this.rotateRight();
+        } else if (balance < -1) {
+            if (heightOf(right.right) < heightOf(right.left)) {
+                right.rotateRight();
+            }
+            this.rotateLeft();
+        } else {
+            this.updateHeight();
+        }
+    }
+
+    // The left child takes the place of this node: its entry moves into this node and
+    // the entry of this node moves into the (reused) child node, which becomes the right child.
+    private void rotateRight() {
+        CosmicSystemTree l = left;
+        this.swapEntry(l);
+        left = l.left;
+        l.left = l.right;
+        l.right = right;
+        right = l;
+        l.updateHeight();
+        this.updateHeight();
+    }
+
+    private void rotateLeft() {
+        CosmicSystemTree r = right;
+        this.swapEntry(r);
+        right = r.right;
+        r.right = r.left;
+        r.left = left;
+        left = r;
+        r.updateHeight();
+        this.updateHeight();
+    }
+
+    private void swapEntry(CosmicSystemTree other) {
+        String k = key;
+        CosmicSystem v = value;
+        key = other.key;
+        value = other.value;
+        other.key = k;
+        other.value = v;
+    }
+
+    private void updateHeight() {
+        height = 1 + Math.max(heightOf(left), heightOf(right));
+    }
+
+    private static int heightOf(CosmicSystemTree tree) {
+        return tree == null ? 0 : tree.height;
+    }
+
+    public int numberOfLeafNodes() {
+        int k = 1;
+        if (left != null) {
+            k += left.numberOfLeafNodes();
+        }
+        if (right != null) {
+            k += right.numberOfLeafNodes();
+        }
+        if (left == null && right == null ) {
+            return 1;
+        }
+        return k;
+    }
+
+
+    // Returns the cosmic system in which a body with the specified name exists.
+    // For example, if the specified name is "Europa", the system of Jupiter (Jupiter, Io,
+    // Europa, Ganymed, Kallisto) will be returned.
+    // If no such system is found, 'null' is returned.
+    public CosmicSystem get(String name) {
+        CosmicSystemTree tree = this;
+        while (tree != null) {
+            int cmp = tree.myCompare(name);
+            if (cmp == 0) {
+                return tree.value;
+            }
+            tree = cmp < 0 ? tree.left : tree.right;
+        }
+        return null;
+    }
+
+    // Returns the overall number of bodies indexed by the tree.
+    public int numberOfBodies() {
+        int n = 0;
+        if (value != null) {
+            n++;
+        }
+        if (left != null) {
+            n += left.numberOfBodies();
+        }
+        if (right != null) {
+            n += right.numberOfBodies();
+        }
+        return n;
+    }
+
+    // Returns a readable representation with (key, value) pairs, sorted alphabetically by the key.
+    //E.g.,
+    //    (Deimos,Mars System)
+    //    (Earth,Earth System)
+    //
+    //Hint: for this you will also need a method in CosmicSystem.java to access the name of a CosmicSystem object.
+    public String toString() {
+        String output = "";
+        if (left != null) {
+            output += left.toString();
+        }
+        output += "\r\n" + "("  + key + ", " + value.getName() + ")";
+
+        if (right != null) {
+            output += right.toString();
+        }
+        return output;
+    }
+
+
+    //BONUS TASK: sets a new canvas and draws the tree using StdDraw
+    public void drawTree() {
+    }
+
+    private int myCompare(String k) {
+        if (k == null) {
+            return key == null ? 0 : -1;
+        }
+        if (key == null) {
+            return 1;
+        }
+        return k.compareTo(key);
+    }
+
+}
+
+
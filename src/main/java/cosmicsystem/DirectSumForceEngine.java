@@ -0,0 +1,233 @@
+package cosmicsystem;
+
+// Computes the forces by summing up the gravitational force of every other body (O(N²)).
+// This is the exact reference the approximating engines are compared against.
+//
+// In symmetric mode each unordered pair of bodies is visited only once and the equal and
+// opposite force is applied to both bodies (Newton's third law), which halves the work.
+// Bodies are then identified by their index instead of 'Body.equals'. The result differs
+// from the non-symmetric sum only by rounding.
+public class DirectSumForceEngine implements ForceEngine {
+
+    private final boolean symmetric;
+
+    public DirectSumForceEngine() {
+        this(false);
+    }
+
+    public DirectSumForceEngine(boolean symmetric) {
+        this.symmetric = symmetric;
+    }
+
+    public boolean isSymmetric() {
+        return symmetric;
+    }
+
+    // for each body compute the total force exerted on it (accumulated in place, no objects are created).
+    public void computeForces(Body[] bodies) {
+        if (symmetric) {
+            computeForcesSymmetric(bodies);
+            return;
+        }
+        for (Body body : bodies) {
+            body.resetForce();
+
+            for (Body body2 : bodies) {
+                if (body.equals(body2)) continue;
+
+                body.addGravitationalForce(body2);
+            }
+        }
+    }
+
+    public void computeAccelerations(BodyStore store, int[] targets, int count) {
+        int n = store.n;
+        double[] x = store.x, y = store.y, z = store.z, m = store.mass;
+        for (int k = 0; k < count; k++) {
+            int i = targets[k];
+            double px = x[i], py = y[i], pz = z[i];
+            double sumX = 0, sumY = 0, sumZ = 0;
+            for (int j = 0; j < n; j++) {
+                if (i == j) continue;
+                double dx = x[j] - px, dy = y[j] - py, dz = z[j] - pz;
+                double d2 = dx * dx + dy * dy + dz * dz;
+                double s = Simulation.G * m[j] / (d2 * Math.sqrt(d2));
+                sumX += dx * s;
+                sumY += dy * s;
+                sumZ += dz * s;
+            }
+            store.ax[i] = sumX;
+            store.ay[i] = sumY;
+            store.az[i] = sumZ;
+        }
+    }
+
+    // Computes the accelerations of the bodies targets[0..count) together with their time
+    // derivatives (jerks), which are stored in 'jx', 'jy' and 'jz'. For a pair with distance
+    // vector r and relative movement v the jerk is G*m*(v/|r|³ - 3*(r·v)*r/|r|⁵).
+    public static void computeAccelerationsAndJerks(BodyStore store, int[] targets, int count,
+                                                    double[] jx, double[] jy, double[] jz) {
+        for (int k = 0; k < count; k++) {
+            accelerationAndJerk(store, targets[k], jx, jy, jz);
+        }
+    }
+
+    // Computes the acceleration and the jerk of the body with index 'i' (also used by 'ParallelForceEngine').
+    static void accelerationAndJerk(BodyStore store, int i, double[] jx, double[] jy, double[] jz) {
+        int n = store.n;
+        double[] x = store.x, y = store.y, z = store.z, m = store.mass;
+        double[] vx = store.vx, vy = store.vy, vz = store.vz;
+        double px = x[i], py = y[i], pz = z[i], qx = vx[i], qy = vy[i], qz = vz[i];
+        double sumX = 0, sumY = 0, sumZ = 0, jerkX = 0, jerkY = 0, jerkZ = 0;
+        for (int j = 0; j < n; j++) {
+            if (i == j) continue;
+            double dx = x[j] - px, dy = y[j] - py, dz = z[j] - pz;
+            double dvx = vx[j] - qx, dvy = vy[j] - qy, dvz = vz[j] - qz;
+            double d2 = dx * dx + dy * dy + dz * dz;
+            double s = Simulation.G * m[j] / (d2 * Math.sqrt(d2));
+            double rv = 3 * (dx * dvx + dy * dvy + dz * dvz) / d2;
+            sumX += dx * s;
+            sumY += dy * s;
+            sumZ += dz * s;
+            jerkX += (dvx - rv * dx) * s;
+            jerkY += (dvy - rv * dy) * s;
+            jerkZ += (dvz - rv * dz) * s;
+        }
+        store.ax[i] = sumX;
+        store.ay[i] = sumY;
+        store.az[i] = sumZ;
+        jx[i] = jerkX;
+        jy[i] = jerkY;
+        jz[i] = jerkZ;
+    }
+
+    public boolean isExactWithinSystems() {
+        return true;
+    }
+
+    public boolean computesJerks() {
+        return true;
+    }
+
+    public void computeAccelerationsAndJerks(BodyStore store, double[] jx, double[] jy, double[] jz) {
+        if (symmetric) {
+            computeAccelerationsAndJerksSymmetric(store, jx, jy, jz);
+            return;
+        }
+        for (int i = 0; i < store.n; i++) {
+            accelerationAndJerk(store, i, jx, jy, jz);
+        }
+    }
+
+    // Computes the accelerations and jerks of all bodies, visiting each unordered pair only once
+    // (the acceleration and the jerk of the pair are applied to both bodies with opposite signs).
+    private static void computeAccelerationsAndJerksSymmetric(BodyStore store, double[] jx, double[] jy, double[] jz) {
+        int n = store.n;
+        double[] x = store.x, y = store.y, z = store.z, m = store.mass;
+        double[] vx = store.vx, vy = store.vy, vz = store.vz;
+        double[] ax = store.ax, ay = store.ay, az = store.az;
+        store.clearAccelerations();
+        java.util.Arrays.fill(jx, 0, n, 0);
+        java.util.Arrays.fill(jy, 0, n, 0);
+        java.util.Arrays.fill(jz, 0, n, 0);
+        for (int i = 0; i < n; i++) {
+            double px = x[i], py = y[i], pz = z[i], qx = vx[i], qy = vy[i], qz = vz[i], mi = m[i];
+            double sumX = 0, sumY = 0, sumZ = 0, jerkX = 0, jerkY = 0, jerkZ = 0;
+            for (int j = i + 1; j < n; j++) {
+                double dx = x[j] - px, dy = y[j] - py, dz = z[j] - pz;
+                double dvx = vx[j] - qx, dvy = vy[j] - qy, dvz = vz[j] - qz;
+                double d2 = dx * dx + dy * dy + dz * dz;
+                double s = Simulation.G / (d2 * Math.sqrt(d2));
+                double rv = 3 * (dx * dvx + dy * dvy + dz * dvz) / d2;
+                double si = s * m[j], sj = s * mi;
+                double ex = dvx - rv * dx, ey = dvy - rv * dy, ez = dvz - rv * dz;
+                sumX += dx * si;
+                sumY += dy * si;
+                sumZ += dz * si;
+                jerkX += ex * si;
+                jerkY += ey * si;
+                jerkZ += ez * si;
+                ax[j] -= dx * sj;
+                ay[j] -= dy * sj;
+                az[j] -= dz * sj;
+                jx[j] -= ex * sj;
+                jy[j] -= ey * sj;
+                jz[j] -= ez * sj;
+            }
+            ax[i] += sumX;
+            ay[i] += sumY;
+            az[i] += sumZ;
+            jx[i] += jerkX;
+            jy[i] += jerkY;
+            jz[i] += jerkZ;
+        }
+    }
+
+    // each pair (i, j) with i < j is computed once.
+    private void computeForcesSymmetric(Body[] bodies) {
+        for (Body body : bodies) {
+            body.resetForce();
+        }
+        for (int i = 0; i < bodies.length; i++) {
+            for (int j = i + 1; j < bodies.length; j++) {
+                bodies[i].addMutualGravitationalForce(bodies[j]);
+            }
+        }
+    }
+
+    public void computeAccelerations(BodyStore store) {
+        if (symmetric) {
+            computeAccelerationsSymmetric(store);
+            return;
+        }
+        int n = store.n;
+        double[] x = store.x, y = store.y, z = store.z, m = store.mass;
+        for (int i = 0; i < n; i++) {
+            double px = x[i], py = y[i], pz = z[i];
+            double sumX = 0, sumY = 0, sumZ = 0;
+            for (int j = 0; j < n; j++) {
+                if (i == j) continue;
+                double dx = x[j] - px, dy = y[j] - py, dz = z[j] - pz;
+                double d2 = dx * dx + dy * dy + dz * dz;
+                // a = G*m/(r*r) in the direction of the other body.
+                double s = Simulation.G * m[j] / (d2 * Math.sqrt(d2));
+                sumX += dx * s;
+                sumY += dy * s;
+                sumZ += dz * s;
+            }
+            store.ax[i] = sumX;
+            store.ay[i] = sumY;
+            store.az[i] = sumZ;
+        }
+    }
+
+    private void computeAccelerationsSymmetric(BodyStore store) {
+        int n = store.n;
+        double[] x = store.x, y = store.y, z = store.z, m = store.mass;
+        double[] ax = store.ax, ay = store.ay, az = store.az;
+        store.clearAccelerations();
+        for (int i = 0; i < n; i++) {
+            double px = x[i], py = y[i], pz = z[i], mi = m[i];
+            double sumX = 0, sumY = 0, sumZ = 0;
+            for (int j = i + 1; j < n; j++) {
+                double dx = x[j] - px, dy = y[j] - py, dz = z[j] - pz;
+                double d2 = dx * dx + dy * dy + dz * dz;
+                double s = Simulation.G / (d2 * Math.sqrt(d2));
+                double si = s * m[j], sj = s * mi;
+                sumX += dx * si;
+                sumY += dy * si;
+                sumZ += dz * si;
+                ax[j] -= dx * sj;
+                ay[j] -= dy * sj;
+                az[j] -= dz * sj;
+            }
+            ax[i] += sumX;
+            ay[i] += sumY;
+            az[i] += sumZ;
+        }
+    }
+
+    public String toString() {
+        return symmetric ? "direct (symmetric pairs)" : "direct";
+    }
+}
@@ -0,0 +1,45 @@
+package cosmicsystem;
+
+// Computes the total gravitational force exerted on each body of a simulation step.
+// Implementations differ in how the interactions are evaluated (exact pairwise sum,
+// tree approximation, ...), so 'Simulation' can switch between them to compare
+// accuracy and speed.
+public interface ForceEngine {
+
+    // Computes the total force exerted on each body of 'bodies' by all other bodies
+    // of 'bodies' and stores it in the body (see 'Body.setForce').
+    void computeForces(Body[] bodies);
+
+    // Computes the total acceleration (total force / mass) of each body of 'store' caused by
+    // all other bodies of 'store' and stores it in the acceleration arrays of 'store'.
+    // Bodies are identified by their index in the store.
+    void computeAccelerations(BodyStore store);
+
+    // Computes the accelerations of the bodies with the indices targets[0], ..., targets[count-1]
+    // only (caused by all bodies of 'store'), e.g. for the bodies which are due in a block time
+    // step scheme. The accelerations of the other bodies may be changed as well; by default all
+    // accelerations are computed.
+    default void computeAccelerations(BodyStore store, int[] targets, int count) {
+        computeAccelerations(store);
+    }
+
+    // Returns 'true' if this engine computes the forces between bodies of the same system exactly
+    // (like the direct sum), which 'RespaIntegrator' needs to split off the far forces.
+    default boolean isExactWithinSystems() {
+        return false;
+    }
+
+    // Returns 'true' if this engine supports 'computeAccelerationsAndJerks'.
+    default boolean computesJerks() {
+        return false;
+    }
+
+    // Computes the accelerations (like 'computeAccelerations') together with their time derivatives
+    // (jerks), which are stored in 'jx', 'jy' and 'jz', e.g. for 'HermiteIntegrator'. Throws an
+    // 'UnsupportedOperationException' by default (an approximation of the forces does not give
+    // jerks which fit to the accelerations).
+    default void computeAccelerationsAndJerks(BodyStore store, double[] jx, double[] jy, double[] jz) {
+        throw new UnsupportedOperationException(this + " does not compute jerks");
+    }
+
+}
@@ -0,0 +1,90 @@
+package cosmicsystem;
+
+// Fourth order Hermite predictor-corrector method (shared time step), one force evaluation
+// per step: all bodies are predicted with their acceleration and jerk (its time derivative),
+// the accelerations and jerks are evaluated at the predicted state, and the state is
+// corrected with the accelerations and jerks at both ends of the step. Much more accurate
+// than leapfrog at the same step (e.g. for dense clusters), with the cost of one force
+// evaluation.
+//
+// Accelerations and jerks are computed together by the force engine of 'step'
+// ('ForceEngine.computeAccelerationsAndJerks'), so it has to compute jerks: the direct sum
+// engines do, the others throw an 'UnsupportedOperationException'. The state at the beginning
+// of a step and the jerks are kept in arrays of this integrator. The accelerations and jerks
+// at the end of a step are reused for the next step, so the store should only be advanced by this
+// integrator (call 'reset' after changing it otherwise).
+public class HermiteIntegrator implements Integrator {
+
+    private BodyStore store;
+    private double[] x0 = new double[0], y0 = x0, z0 = x0, vx0 = x0, vy0 = x0, vz0 = x0;
+    private double[] ax0 = x0, ay0 = x0, az0 = x0;
+    private double[] jx0 = x0, jy0 = x0, jz0 = x0; // jerk at the beginning of the step
+    private double[] jx = x0, jy = x0, jz = x0;    // jerk at the end of the step
+
+    // Forgets the accelerations and jerks of the last step (they are computed again in the next step).
+    public void reset() {
+        store = null;
+    }
+
+    public void step(BodyStore store, ForceEngine engine, double dt) {
+        int n = store.n;
+        if (this.store != store || x0.length != n) {
+            start(store, engine);
+        }
+        double dt2 = dt * dt / 2, dt3 = dt * dt * dt / 6;
+
+        // predict.
+        System.arraycopy(store.x, 0, x0, 0, n);
+        System.arraycopy(store.y, 0, y0, 0, n);
+        System.arraycopy(store.z, 0, z0, 0, n);
+        System.arraycopy(store.vx, 0, vx0, 0, n);
+        System.arraycopy(store.vy, 0, vy0, 0, n);
+        System.arraycopy(store.vz, 0, vz0, 0, n);
+        System.arraycopy(store.ax, 0, ax0, 0, n);
+        System.arraycopy(store.ay, 0, ay0, 0, n);
+        System.arraycopy(store.az, 0, az0, 0, n);
+        for (int i = 0; i < n; i++) {
+            store.x[i] += vx0[i] * dt + ax0[i] * dt2 + jx0[i] * dt3;
+            store.y[i] += vy0[i] * dt + ay0[i] * dt2 + jy0[i] * dt3;
+            store.z[i] += vz0[i] * dt + az0[i] * dt2 + jz0[i] * dt3;
+            store.vx[i] += ax0[i] * dt + jx0[i] * dt2;
+            store.vy[i] += ay0[i] * dt + jy0[i] * dt2;
+            store.vz[i] += az0[i] * dt + jz0[i] * dt2;
+        }
+
+        // evaluate.
+        engine.computeAccelerationsAndJerks(store, jx, jy, jz);
+
+        // correct.
+        double h = dt / 2, h2 = dt * dt / 12;
+        for (int i = 0; i < n; i++) {
+            store.vx[i] = vx0[i] + (ax0[i] + store.ax[i]) * h + (jx0[i] - jx[i]) * h2;
+            store.vy[i] = vy0[i] + (ay0[i] + store.ay[i]) * h + (jy0[i] - jy[i]) * h2;
+            store.vz[i] = vz0[i] + (az0[i] + store.az[i]) * h + (jz0[i] - jz[i]) * h2;
+            store.x[i] = x0[i] + (vx0[i] + store.vx[i]) * h + (ax0[i] - store.ax[i]) * h2;
+            store.y[i] = y0[i] + (vy0[i] + store.vy[i]) * h + (ay0[i] - store.ay[i]) * h2;
+            store.z[i] = z0[i] + (vz0[i] + store.vz[i]) * h + (az0[i] - store.az[i]) * h2;
+        }
+
+        // the end of this step is the beginning of the next one.
+        double[] t = jx0; jx0 = jx; jx = t;
+        t = jy0; jy0 = jy; jy = t;
+        t = jz0; jz0 = jz; jz = t;
+    }
+
+    // Allocates the arrays and computes the accelerations and jerks at the current state.
+    private void start(BodyStore store, ForceEngine engine) {
+        int n = store.n;
+        this.store = store;
+        x0 = new double[n]; y0 = new double[n]; z0 = new double[n];
+        vx0 = new double[n]; vy0 = new double[n]; vz0 = new double[n];
+        ax0 = new double[n]; ay0 = new double[n]; az0 = new double[n];
+        jx0 = new double[n]; jy0 = new double[n]; jz0 = new double[n];
+        jx = new double[n]; jy = new double[n]; jz = new double[n];
+        engine.computeAccelerationsAndJerks(store, jx0, jy0, jz0);
+    }
+
+    public String toString() {
+        return "hermite";
+    }
+}
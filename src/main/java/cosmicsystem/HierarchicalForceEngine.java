@@ -0,0 +1,272 @@
+package cosmicsystem;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+// Approximates the forces with the structure of the systems the bodies belong to (a tree
+// code on the 'ComplexCosmicSystem' hierarchy instead of an octree as in 'BarnesHutForceEngine'):
+// a subsystem which does not contain a body and whose extent divided by its distance to the
+// body is less than the opening angle 'theta' acts on the body as a single point mass at its
+// mass center. Within its own systems and near other subsystems, a body interacts with
+// every other body.
+// The extent of a system is the largest distance of one of its bodies from its mass center.
+//
+// The hierarchy is read once per store (again when the store changes, e.g. after a collision);
+// the masses and mass centers are computed from the positions in the store in every step,
+// since the 'Body' objects are not updated while the store is advanced. Bodies of a store
+// which are not part of the hierarchy are treated like bodies of the top system.
+public class HierarchicalForceEngine implements ForceEngine {
+
+    private final ComplexCosmicSystem system;
+    private final double theta;
+
+    // the systems in pre-order; the subsystems of system k are k+1, ..., k+subtree[k]-1.
+    private int nodes;
+    private int[] subtree = new int[0];
+    private int[] childStart = new int[0], childEnd = new int[0]; // range of 'children'
+    private int[] bodyStart = new int[0], bodyEnd = new int[0];   // range of 'members'
+    private int[] children = new int[0];
+    private int[] members = new int[0]; // store indices of the bodies directly in a system
+    private int[] owner = new int[0];   // system which directly contains a body
+    private double[] cx = new double[0], cy = cx, cz = cx, cm = cx, extent = cx;
+    private int[] stack = new int[0];
+
+    private BodyStore lastStore;
+    private int lastN;
+
+    // used by 'computeForces' to run the packed kernel for an array of bodies.
+    private Body[] lastBodies;
+    private BodyStore bodiesStore;
+
+    public HierarchicalForceEngine(ComplexCosmicSystem system, double theta) {
+        if (theta < 0) {
+            throw new IllegalArgumentException("theta must not be negative: " + theta);
+        }
+        this.system = system;
+        this.theta = theta;
+    }
+
+    public double getTheta() {
+        return theta;
+    }
+
+    public void computeForces(Body[] bodies) {
+        if (lastBodies != bodies) {
+            lastBodies = bodies;
+            bodiesStore = new BodyStore(bodies);
+        } else {
+            bodiesStore.load();
+        }
+        computeAccelerations(bodiesStore);
+        for (int i = 0; i < bodies.length; i++) {
+            double m = bodiesStore.mass[i];
+            bodies[i].getForce().set(bodiesStore.ax[i] * m, bodiesStore.ay[i] * m, bodiesStore.az[i] * m);
+        }
+    }
+
+    // a body interacts with every other body of its own systems.
+    public boolean isExactWithinSystems() {
+        return true;
+    }
+
+    public void computeAccelerations(BodyStore store) {
+        prepare(store);
+        for (int i = 0; i < store.n; i++) {
+            accelerationOn(store, i);
+        }
+    }
+
+    public void computeAccelerations(BodyStore store, int[] targets, int count) {
+        prepare(store);
+        for (int k = 0; k < count; k++) {
+            accelerationOn(store, targets[k]);
+        }
+    }
+
+    // Reads the hierarchy (if the store changed) and computes mass, mass center and extent of every system.
+    private void prepare(BodyStore store) {
+        if (lastStore != store || lastN != store.n) {
+            read(store);
+            lastStore = store;
+            lastN = store.n;
+        }
+        double[] x = store.x, y = store.y, z = store.z, mass = store.mass;
+        // children come after their parent, so going backwards computes them first.
+        for (int k = nodes - 1; k >= 0; k--) {
+            double m = 0, sx = 0, sy = 0, sz = 0;
+            for (int b = bodyStart[k]; b < bodyEnd[k]; b++) {
+                int i = members[b];
+                m += mass[i];
+                sx += x[i] * mass[i];
+                sy += y[i] * mass[i];
+                sz += z[i] * mass[i];
+            }
+            for (int c = childStart[k]; c < childEnd[k]; c++) {
+                int child = children[c];
+                m += cm[child];
+                sx += cx[child] * cm[child];
+                sy += cy[child] * cm[child];
+                sz += cz[child] * cm[child];
+            }
+            cm[k] = m;
+            if (m > 0) {
+                cx[k] = sx / m;
+                cy[k] = sy / m;
+                cz[k] = sz / m;
+            } else {
+                cx[k] = cy[k] = cz[k] = 0;
+            }
+
+            double e = 0;
+            for (int b = bodyStart[k]; b < bodyEnd[k]; b++) {
+                int i = members[b];
+                e = Math.max(e, distance(x[i] - cx[k], y[i] - cy[k], z[i] - cz[k]));
+            }
+            for (int c = childStart[k]; c < childEnd[k]; c++) {
+                int child = children[c];
+                e = Math.max(e, distance(cx[child] - cx[k], cy[child] - cy[k], cz[child] - cz[k]) + extent[child]);
+            }
+            extent[k] = e;
+        }
+    }
+
+    private static double distance(double dx, double dy, double dz) {
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    // Sums up the acceleration of the body with index 'i' by walking down the systems.
+    private void accelerationOn(BodyStore store, int i) {
+        double[] x = store.x, y = store.y, z = store.z, mass = store.mass;
+        double px = x[i], py = y[i], pz = z[i];
+        double sumX = 0, sumY = 0, sumZ = 0;
+        int own = owner[i];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int k = stack[--top];
+            double dx = cx[k] - px, dy = cy[k] - py, dz = cz[k] - pz;
+            double d2 = dx * dx + dy * dy + dz * dz;
+            boolean contains = k <= own && own < k + subtree[k];
+            if (!contains && extent[k] * extent[k] < theta * theta * d2) {
+                double s = Simulation.G * cm[k] / (d2 * Math.sqrt(d2));
+                sumX += dx * s;
+                sumY += dy * s;
+                sumZ += dz * s;
+                continue;
+            }
+            for (int b = bodyStart[k]; b < bodyEnd[k]; b++) {
+                int j = members[b];
+                if (j == i) continue;
+                double ex = x[j] - px, ey = y[j] - py, ez = z[j] - pz;
+                double e2 = ex * ex + ey * ey + ez * ez;
+                double s = Simulation.G * mass[j] / (e2 * Math.sqrt(e2));
+                sumX += ex * s;
+                sumY += ey * s;
+                sumZ += ez * s;
+            }
+            for (int c = childStart[k]; c < childEnd[k]; c++) {
+                stack[top++] = children[c];
+            }
+        }
+        store.ax[i] = sumX;
+        store.ay[i] = sumY;
+        store.az[i] = sumZ;
+    }
+
+    // Flattens the hierarchy of 'system' into the arrays (systems in pre-order).
+    private void read(BodyStore store) {
+        int n = store.n;
+        IdentityHashMap<Body, Integer> indices = new IdentityHashMap<>();
+        for (int i = 0; i < n; i++) {
+            indices.put(store.getBody(i), i);
+        }
+
+        nodes = 0;
+        owner = new int[n];
+        Arrays.fill(owner, -1);
+        members = new int[n];
+        int[] parents = new int[16];
+
+        // pre-order walk with an explicit stack (the components of a system are pushed in reverse).
+        ArrayDeque<ComplexCosmicSystem> pending = new ArrayDeque<>();
+        ArrayDeque<Integer> pendingParents = new ArrayDeque<>();
+        pending.push(system);
+        pendingParents.push(-1);
+        while (!pending.isEmpty()) {
+            ComplexCosmicSystem s = pending.pop();
+            int parent = pendingParents.pop();
+            if (nodes == parents.length) {
+                parents = Arrays.copyOf(parents, 2 * nodes);
+            }
+            parents[nodes] = parent;
+            int k = nodes++;
+            ArrayDeque<ComplexCosmicSystem> subsystems = new ArrayDeque<>();
+            for (myCosmicNode node = s.getHead(); node != null; node = node.getNext()) {
+                CosmicComponent component = node.get();
+                if (component instanceof ComplexCosmicSystem) {
+                    subsystems.push((ComplexCosmicSystem) component);
+                } else if (component instanceof Body) {
+                    Integer i = indices.get(component);
+                    if (i != null && owner[i] == -1) {
+                        owner[i] = k;
+                    }
+                }
+            }
+            while (!subsystems.isEmpty()) {
+                pending.push(subsystems.pop());
+                pendingParents.push(k);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (owner[i] == -1) {
+                owner[i] = 0;
+            }
+        }
+
+        subtree = new int[nodes];
+        childStart = new int[nodes];
+        childEnd = new int[nodes];
+        bodyStart = new int[nodes];
+        bodyEnd = new int[nodes];
+        cx = new double[nodes];
+        cy = new double[nodes];
+        cz = new double[nodes];
+        cm = new double[nodes];
+        extent = new double[nodes];
+        stack = new int[nodes];
+        children = new int[Math.max(0, nodes - 1)];
+
+        // counting sort of the bodies and the subsystems by the system which contains them.
+        int[] bodiesPer = new int[nodes + 1];
+        int[] childrenPer = new int[nodes + 1];
+        for (int i = 0; i < n; i++) {
+            bodiesPer[owner[i] + 1]++;
+        }
+        for (int k = 1; k < nodes; k++) {
+            childrenPer[parents[k] + 1]++;
+        }
+        for (int k = 0; k < nodes; k++) {
+            bodiesPer[k + 1] += bodiesPer[k];
+            childrenPer[k + 1] += childrenPer[k];
+            bodyStart[k] = bodyEnd[k] = bodiesPer[k];
+            childStart[k] = childEnd[k] = childrenPer[k];
+        }
+        for (int i = 0; i < n; i++) {
+            members[bodyEnd[owner[i]]++] = i;
+        }
+        for (int k = 1; k < nodes; k++) {
+            children[childEnd[parents[k]]++] = k;
+        }
+        for (int k = nodes - 1; k >= 0; k--) {
+            subtree[k] = 1;
+            for (int c = childStart[k]; c < childEnd[k]; c++) {
+                subtree[k] += subtree[children[c]];
+            }
+        }
+    }
+
+    public String toString() {
+        return "hierarchical (" + system.getName() + ", theta = " + theta + ")";
+    }
+}
@@ -0,0 +1,11 @@
+package cosmicsystem;
+
+// Advances the bodies of a 'BodyStore' by one time step of a chosen length, using a
+// 'ForceEngine' for the accelerations. Implementations differ in the order of accuracy
+// and in the number of force evaluations per step.
+public interface Integrator {
+
+    // Advances all bodies of 'store' by 'dt' seconds.
+    void step(BodyStore store, ForceEngine engine, double dt);
+
+}
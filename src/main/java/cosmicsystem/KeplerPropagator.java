@@ -0,0 +1,227 @@
+package cosmicsystem;
+
+// Moves two bodies along their exact Kepler orbit (the solution of the two-body problem)
+// over any time span at constant cost, instead of integrating the motion step by step.
+// The orbit is solved with universal variables, so elliptic, parabolic and hyperbolic
+// orbits are handled by the same formulas: Kepler's equation is solved for the universal
+// anomaly chi, and the new relative position and movement follow from the Lagrange
+// coefficients f, g, f' and g'.
+//
+// 'propagate(mu, state, dt)' advances a relative position and movement and can be used as
+// the drift step of a split integrator (the other forces are then applied as kicks);
+// 'propagate(system, dt)' and 'drift(store, i, j, dt)' move a pair of bodies around their
+// common mass center.
+public class KeplerPropagator {
+
+    private static final int MAX_ITERATIONS = 50;
+
+    private KeplerPropagator() {}
+
+    // Moves the two bodies of 'system' by 'dt' seconds as if there were no other bodies.
+    // Throws an 'IllegalArgumentException' if 'system' does not contain exactly two bodies.
+    public static void propagate(ComplexCosmicSystem system, double dt) {
+        Body[] bodies = Simulation.toArray(system);
+        if (bodies.length != 2) {
+            throw new IllegalArgumentException("Not a two-body system: " + system.getName() + " has "
+                    + bodies.length + " bodies");
+        }
+        Body a = bodies[0], b = bodies[1];
+        double[] s = new double[6];
+        Vector3 relative = b.getPosition().minus(a.getPosition());
+        Vector3 movement = b.getCurrentMovement().minus(a.getCurrentMovement());
+        s[0] = relative.getX();
+        s[1] = relative.getY();
+        s[2] = relative.getZ();
+        s[3] = movement.getX();
+        s[4] = movement.getY();
+        s[5] = movement.getZ();
+        double ma = a.getMass(), mb = b.getMass(), m = ma + mb;
+        propagate(Simulation.G * m, s, dt);
+
+        // the mass center moves in a straight line.
+        Vector3 center = a.getPosition().times(ma).addScaled(b.getPosition(), mb).scale(1 / m)
+                .addScaled(a.getCurrentMovement().times(ma).addScaled(b.getCurrentMovement(), mb), dt / m);
+        Vector3 centerMovement = a.getCurrentMovement().times(ma).addScaled(b.getCurrentMovement(), mb).scale(1 / m);
+        Vector3 r = new Vector3(s[0], s[1], s[2]);
+        Vector3 v = new Vector3(s[3], s[4], s[5]);
+        a.setState(center.minus(r.times(mb / m)), centerMovement.minus(v.times(mb / m)));
+        b.setState(center.plus(r.times(ma / m)), centerMovement.plus(v.times(ma / m)));
+    }
+
+    // Moves the bodies with the indices 'i' and 'j' of 'store' by 'dt' seconds as if there were
+    // no other bodies (the accelerations are not changed).
+    public static void drift(BodyStore store, int i, int j, double dt) {
+        double mi = store.mass[i], mj = store.mass[j], m = mi + mj;
+        double[] s = {store.x[j] - store.x[i], store.y[j] - store.y[i], store.z[j] - store.z[i],
+                store.vx[j] - store.vx[i], store.vy[j] - store.vy[i], store.vz[j] - store.vz[i]};
+        double cvx = (mi * store.vx[i] + mj * store.vx[j]) / m;
+        double cvy = (mi * store.vy[i] + mj * store.vy[j]) / m;
+        double cvz = (mi * store.vz[i] + mj * store.vz[j]) / m;
+        double cx = (mi * store.x[i] + mj * store.x[j]) / m + cvx * dt;
+        double cy = (mi * store.y[i] + mj * store.y[j]) / m + cvy * dt;
+        double cz = (mi * store.z[i] + mj * store.z[j]) / m + cvz * dt;
+        propagate(Simulation.G * m, s, dt);
+        double fi = mj / m, fj = mi / m;
+        store.x[i] = cx - s[0] * fi;
+        store.y[i] = cy - s[1] * fi;
+        store.z[i] = cz - s[2] * fi;
+        store.vx[i] = cvx - s[3] * fi;
+        store.vy[i] = cvy - s[4] * fi;
+        store.vz[i] = cvz - s[5] * fi;
+        store.x[j] = cx + s[0] * fj;
+        store.y[j] = cy + s[1] * fj;
+        store.z[j] = cz + s[2] * fj;
+        store.vx[j] = cvx + s[3] * fj;
+        store.vy[j] = cvy + s[4] * fj;
+        store.vz[j] = cvz + s[5] * fj;
+    }
+
+    // Advances the relative position (state[0..2]) and movement (state[3..5]) of a body around a
+    // center of gravitational parameter 'mu' (G times the total mass) by 'dt' seconds.
+    public static void propagate(double mu, double[] state, double dt) {
+        double x = state[0], y = state[1], z = state[2];
+        double vx = state[3], vy = state[4], vz = state[5];
+        double r0 = Math.sqrt(x * x + y * y + z * z);
+        if (dt == 0 || r0 == 0 || mu <= 0) {
+            state[0] += vx * dt;
+            state[1] += vy * dt;
+            state[2] += vz * dt;
+            return;
+        }
+        double v2 = vx * vx + vy * vy + vz * vz;
+        double sqrtMu = Math.sqrt(mu);
+        double sigma0 = (x * vx + y * vy + z * vz) / sqrtMu;
+        double alpha = 2 / r0 - v2 / mu; // 1 / semi-major axis (negative for hyperbolic orbits)
+
+        // on an ellipse only the time since the last full revolution matters.
+        double t = dt;
+        if (alpha > 0) {
+            double period = 2 * Math.PI / (sqrtMu * alpha * Math.sqrt(alpha));
+            if (Math.abs(t) > period) {
+                t = t % period;
+            }
+        }
+
+        double chi = initialGuess(mu, r0, sigma0, alpha, t);
+        double beta = 1 - alpha * r0;
+        double target = sqrtMu * t;
+        boolean converged = false;
+        // Laguerre's method (converges for any start value, unlike Newton's method on hyperbolas).
+        for (int k = 0; k < MAX_ITERATIONS && !converged; k++) {
+            double chi2 = chi * chi;
+            double zeta = alpha * chi2;
+            double c = stumpffC(zeta);
+            double s = stumpffS(zeta);
+            double f = sigma0 * chi2 * c + beta * chi2 * chi * s + r0 * chi - target;
+            double df = sigma0 * chi * (1 - zeta * s) + beta * chi2 * c + r0;
+            double ddf = sigma0 * (1 - zeta * c) + beta * chi * (1 - zeta * s);
+            double root = Math.sqrt(Math.abs(16 * df * df - 20 * f * ddf));
+            double delta = 5 * f / (df + Math.copySign(root, df));
+            chi -= delta;
+            converged = Math.abs(delta) <= 1e-15 * Math.abs(chi) || delta == 0;
+        }
+        if (!converged || !Double.isFinite(chi)) {
+            chi = bisect(sigma0, beta, r0, alpha, target, initialGuess(mu, r0, sigma0, alpha, t));
+        }
+
+        double chi2 = chi * chi;
+        double zeta = alpha * chi2;
+        double c = stumpffC(zeta);
+        double s = stumpffS(zeta);
+        double r = sigma0 * chi * (1 - zeta * s) + beta * chi2 * c + r0;
+        double f = 1 - chi2 / r0 * c;
+        double g = t - chi2 * chi / sqrtMu * s;
+        double df = sqrtMu / (r * r0) * chi * (alpha * chi2 * s - 1);
+        double dg = 1 - chi2 / r * c;
+        state[0] = f * x + g * vx;
+        state[1] = f * y + g * vy;
+        state[2] = f * z + g * vz;
+        state[3] = df * x + dg * vx;
+        state[4] = df * y + dg * vy;
+        state[5] = df * z + dg * vz;
+    }
+
+    // Solves Kepler's equation by bisection, if Laguerre's method did not converge: the time
+    // grows with chi (its derivative is the distance r > 0), so the root is bracketed by
+    // moving away from 'guess' with doubling steps and then found by halving the interval.
+    // Throws an 'ArithmeticException' if no root is found (e.g. for a non-finite state).
+    private static double bisect(double sigma0, double beta, double r0, double alpha, double target, double guess) {
+        double lo = Double.isFinite(guess) ? guess : 0, hi = lo;
+        double step = (Math.abs(lo) + Math.abs(target) / r0) * 1e-3 + Double.MIN_NORMAL;
+        if (kepler(sigma0, beta, r0, alpha, lo) < target) {
+            for (int k = 0; k < 2100 && !(kepler(sigma0, beta, r0, alpha, hi) >= target); k++) {
+                lo = hi;
+                hi += step;
+                step *= 2;
+            }
+        } else {
+            for (int k = 0; k < 2100 && !(kepler(sigma0, beta, r0, alpha, lo) <= target); k++) {
+                hi = lo;
+                lo -= step;
+                step *= 2;
+            }
+        }
+        if (!(kepler(sigma0, beta, r0, alpha, lo) <= target && kepler(sigma0, beta, r0, alpha, hi) >= target)) {
+            throw new ArithmeticException("Kepler's equation not solved (target " + target + ", r0 " + r0
+                    + ", alpha " + alpha + ")");
+        }
+        while (true) {
+            double mid = (lo + hi) / 2;
+            if (mid <= lo || mid >= hi) {
+                return mid;
+            }
+            if (kepler(sigma0, beta, r0, alpha, mid) < target) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+    }
+
+    // The left side of Kepler's equation in universal variables (sqrt(mu) times the time at 'chi').
+    private static double kepler(double sigma0, double beta, double r0, double alpha, double chi) {
+        double chi2 = chi * chi;
+        double zeta = alpha * chi2;
+        return sigma0 * chi2 * stumpffC(zeta) + beta * chi2 * chi * stumpffS(zeta) + r0 * chi;
+    }
+
+    private static double initialGuess(double mu, double r0, double sigma0, double alpha, double t) {
+        double sqrtMu = Math.sqrt(mu);
+        if (alpha > 1e-12 / r0) {
+            return sqrtMu * t * alpha;
+        }
+        if (alpha < -1e-12 / r0) {
+            double a = 1 / alpha;
+            double guess = Math.signum(t) * Math.sqrt(-a) * Math.log((-2 * mu * alpha * t)
+                    / (sigma0 * sqrtMu + Math.signum(t) * Math.sqrt(-mu * a) * (1 - r0 * alpha)));
+            if (!Double.isNaN(guess) && !Double.isInfinite(guess)) {
+                return guess;
+            }
+        }
+        return sqrtMu * t / r0;
+    }
+
+    // Stumpff function c2(z) = (1 - cos(sqrt(z))) / z (power series near 0).
+    static double stumpffC(double z) {
+        if (z > 0.1) {
+            return (1 - Math.cos(Math.sqrt(z))) / z;
+        }
+        if (z < -0.1) {
+            return (Math.cosh(Math.sqrt(-z)) - 1) / -z;
+        }
+        return 1.0 / 2 - z * (1.0 / 24 - z * (1.0 / 720 - z * (1.0 / 40320 - z * (1.0 / 3628800 - z / 479001600))));
+    }
+
+    // Stumpff function c3(z) = (sqrt(z) - sin(sqrt(z))) / sqrt(z)^3 (power series near 0).
+    static double stumpffS(double z) {
+        if (z > 0.1) {
+            double q = Math.sqrt(z);
+            return (q - Math.sin(q)) / (z * q);
+        }
+        if (z < -0.1) {
+            double q = Math.sqrt(-z);
+            return (Math.sinh(q) - q) / (-z * q);
+        }
+        return 1.0 / 6 - z * (1.0 / 120 - z * (1.0 / 5040 - z * (1.0 / 362880 - z * (1.0 / 39916800 - z / 6227020800.0))));
+    }
+}
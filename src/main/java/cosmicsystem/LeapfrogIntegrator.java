@@ -0,0 +1,18 @@
+package cosmicsystem;
+
+// Second order symplectic leapfrog (drift-kick-drift form of the Verlet method), one force
+// evaluation per step: half a drift, a full kick with the accelerations at the midpoint,
+// and another half drift. Energy errors stay bounded instead of growing over time.
+public class LeapfrogIntegrator implements Integrator {
+
+    public void step(BodyStore store, ForceEngine engine, double dt) {
+        store.drift(dt / 2);
+        engine.computeAccelerations(store);
+        store.kick(dt);
+        store.drift(dt / 2);
+    }
+
+    public String toString() {
+        return "leapfrog";
+    }
+}
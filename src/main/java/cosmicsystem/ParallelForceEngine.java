@@ -0,0 +1,325 @@
+package cosmicsystem;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Computes the forces by direct summation (like 'DirectSumForceEngine') on several cores,
+// using a 'ForkJoinPool' with a configurable parallelism level.
+//
+// Two race-free schemes are available:
+// - deterministic: every body is owned by exactly one task, which sums up the interactions
+//   with all other bodies in index order. The accelerations are bit-for-bit the same as those
+//   of the (non-symmetric) 'DirectSumForceEngine.computeAccelerations', regardless of the
+//   number of threads. ('computeForces' multiplies them by the mass, so its forces may differ
+//   in the last bits from those of 'DirectSumForceEngine.computeForces', which sums up forces.)
+// - otherwise: each unordered pair is computed only once (Newton's third law). The pairs are
+//   split into one chunk per thread, every chunk accumulates into its own acceleration arrays,
+//   and the arrays are summed up afterwards. This halves the work, but the rounding of the
+//   result depends on the number of threads.
+// The jerks (for 'HermiteIntegrator') are always computed with the ownership scheme.
+public class ParallelForceEngine implements ForceEngine {
+
+    // bodies per task below which a range is not split any further.
+    private static final int MIN_RANGE = 64;
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final boolean deterministic;
+
+    // per-chunk accumulators of the symmetric scheme, [chunk][body].
+    private double[][] accX = new double[0][], accY = new double[0][], accZ = new double[0][];
+    // tasks of the symmetric scheme, created again only when the store or its size changes.
+    private BodyStore pairStore;
+    private int pairN = -1;
+    private PairTask[] pairTasks;
+    private AllPairsTask allPairs;
+
+    // used by 'computeForces' to run the packed kernels for an array of bodies.
+    private Body[] lastBodies;
+    private BodyStore lastStore;
+
+    public ParallelForceEngine(int parallelism, boolean deterministic) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.deterministic = deterministic;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    // Uses all available processors.
+    public ParallelForceEngine(boolean deterministic) {
+        this(Runtime.getRuntime().availableProcessors(), deterministic);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+
+    public void computeForces(Body[] bodies) {
+        if (lastBodies != bodies) {
+            lastBodies = bodies;
+            lastStore = new BodyStore(bodies);
+        } else {
+            lastStore.load();
+        }
+        computeAccelerations(lastStore);
+        for (int i = 0; i < bodies.length; i++) {
+            double m = lastStore.mass[i];
+            bodies[i].getForce().set(lastStore.ax[i] * m, lastStore.ay[i] * m, lastStore.az[i] * m);
+        }
+    }
+
+    public void computeAccelerations(BodyStore store) {
+        if (deterministic) {
+            pool.invoke(new OwnerTask(store, null, 0, store.n, Math.max(MIN_RANGE, store.n / (8 * parallelism))));
+        } else {
+            computeSymmetric(store);
+        }
+    }
+
+    // Computes only the accelerations of the targets (in both schemes with the ownership scheme).
+    public void computeAccelerations(BodyStore store, int[] targets, int count) {
+        pool.invoke(new OwnerTask(store, targets, 0, count, Math.max(MIN_RANGE, count / (8 * parallelism))));
+    }
+
+    public boolean isExactWithinSystems() {
+        return true;
+    }
+
+    public boolean computesJerks() {
+        return true;
+    }
+
+    public void computeAccelerationsAndJerks(BodyStore store, double[] jx, double[] jy, double[] jz) {
+        pool.invoke(new JerkTask(store, jx, jy, jz, 0, store.n, Math.max(MIN_RANGE, store.n / (8 * parallelism))));
+    }
+
+    // Shuts down the threads of this engine.
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private void computeSymmetric(BodyStore store) {
+        int n = store.n;
+        if (pairStore != store || pairN != n) {
+            createPairTasks(store);
+        } else {
+            for (PairTask task : pairTasks) {
+                task.reinitialize();
+            }
+            allPairs.reinitialize();
+        }
+        pool.invoke(allPairs);
+        pool.invoke(new ReduceTask(store, pairTasks.length, 0, n, Math.max(MIN_RANGE, n / (8 * parallelism))));
+    }
+
+    // Splits the pairs of 'store' into one task per chunk.
+    private void createPairTasks(BodyStore store) {
+        int n = store.n;
+        int chunks = Math.max(1, Math.min(parallelism, n / MIN_RANGE));
+        if (accX.length < chunks || accX[0].length < n) {
+            accX = new double[chunks][n];
+            accY = new double[chunks][n];
+            accZ = new double[chunks][n];
+        }
+
+        // row i has n-1-i pairs; the rows are split such that every chunk gets about the same number of pairs.
+        int[] start = new int[chunks + 1];
+        double pairsPerChunk = (double) n * (n - 1) / 2 / chunks;
+        int row = 0;
+        double pairs = 0;
+        for (int c = 1; c < chunks; c++) {
+            while (row < n && pairs < c * pairsPerChunk) {
+                pairs += n - 1 - row;
+                row++;
+            }
+            start[c] = row;
+        }
+        start[chunks] = n;
+
+        pairTasks = new PairTask[chunks];
+        for (int c = 0; c < chunks; c++) {
+            pairTasks[c] = new PairTask(store, start[c], start[c + 1], accX[c], accY[c], accZ[c]);
+        }
+        allPairs = new AllPairsTask(pairTasks);
+        pairStore = store;
+        pairN = n;
+    }
+
+    public String toString() {
+        return "parallel direct (" + parallelism + " threads" + (deterministic ? ", deterministic" : "") + ")";
+    }
+
+    // Computes the accelerations of the bodies targets[from..to), or of the bodies [from, to) if
+    // 'targets' is null (ownership scheme).
+    private static class OwnerTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final BodyStore store;
+        private final int[] targets;
+        private final int from, to, threshold;
+
+        OwnerTask(BodyStore store, int[] targets, int from, int to, int threshold) {
+            this.store = store;
+            this.targets = targets;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        protected void compute() {
+            if (to - from > threshold) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new OwnerTask(store, targets, from, middle, threshold),
+                        new OwnerTask(store, targets, middle, to, threshold));
+                return;
+            }
+            int n = store.n;
+            double[] x = store.x, y = store.y, z = store.z, m = store.mass;
+            for (int k = from; k < to; k++) {
+                int i = targets == null ? k : targets[k];
+                double px = x[i], py = y[i], pz = z[i];
+                double sumX = 0, sumY = 0, sumZ = 0;
+                for (int j = 0; j < n; j++) {
+                    if (i == j) continue;
+                    double dx = x[j] - px, dy = y[j] - py, dz = z[j] - pz;
+                    double d2 = dx * dx + dy * dy + dz * dz;
+                    double s = Simulation.G * m[j] / (d2 * Math.sqrt(d2));
+                    sumX += dx * s;
+                    sumY += dy * s;
+                    sumZ += dz * s;
+                }
+                store.ax[i] = sumX;
+                store.ay[i] = sumY;
+                store.az[i] = sumZ;
+            }
+        }
+    }
+
+    // Computes the accelerations and jerks of the bodies [from, to) (ownership scheme).
+    private static class JerkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final BodyStore store;
+        private final double[] jx, jy, jz;
+        private final int from, to, threshold;
+
+        JerkTask(BodyStore store, double[] jx, double[] jy, double[] jz, int from, int to, int threshold) {
+            this.store = store;
+            this.jx = jx;
+            this.jy = jy;
+            this.jz = jz;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        protected void compute() {
+            if (to - from > threshold) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new JerkTask(store, jx, jy, jz, from, middle, threshold),
+                        new JerkTask(store, jx, jy, jz, middle, to, threshold));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                DirectSumForceEngine.accelerationAndJerk(store, i, jx, jy, jz);
+            }
+        }
+    }
+
+    // Accumulates all pairs (i, j) with 'from' <= i < 'to' and i < j into its own arrays.
+    private static class PairTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final BodyStore store;
+        private final int from, to;
+        private final double[] ax, ay, az;
+
+        PairTask(BodyStore store, int from, int to, double[] ax, double[] ay, double[] az) {
+            this.store = store;
+            this.from = from;
+            this.to = to;
+            this.ax = ax;
+            this.ay = ay;
+            this.az = az;
+        }
+
+        protected void compute() {
+            int n = store.n;
+            double[] x = store.x, y = store.y, z = store.z, m = store.mass;
+            java.util.Arrays.fill(ax, 0, n, 0);
+            java.util.Arrays.fill(ay, 0, n, 0);
+            java.util.Arrays.fill(az, 0, n, 0);
+            for (int i = from; i < to; i++) {
+                double px = x[i], py = y[i], pz = z[i], mi = m[i];
+                double sumX = 0, sumY = 0, sumZ = 0;
+                for (int j = i + 1; j < n; j++) {
+                    double dx = x[j] - px, dy = y[j] - py, dz = z[j] - pz;
+                    double d2 = dx * dx + dy * dy + dz * dz;
+                    double s = Simulation.G / (d2 * Math.sqrt(d2));
+                    double si = s * m[j], sj = s * mi;
+                    sumX += dx * si;
+                    sumY += dy * si;
+                    sumZ += dz * si;
+                    ax[j] -= dx * sj;
+                    ay[j] -= dy * sj;
+                    az[j] -= dz * sj;
+                }
+                ax[i] += sumX;
+                ay[i] += sumY;
+                az[i] += sumZ;
+            }
+        }
+    }
+
+    // Runs all pair tasks.
+    private static class AllPairsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final PairTask[] tasks;
+
+        AllPairsTask(PairTask[] tasks) {
+            this.tasks = tasks;
+        }
+
+        protected void compute() {
+            invokeAll(tasks);
+        }
+    }
+
+    // Sums up the chunk accumulators of the bodies [from, to) in chunk order.
+    private class ReduceTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final BodyStore store;
+        private final int chunks, from, to, threshold;
+
+        ReduceTask(BodyStore store, int chunks, int from, int to, int threshold) {
+            this.store = store;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        protected void compute() {
+            if (to - from > threshold) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ReduceTask(store, chunks, from, middle, threshold),
+                        new ReduceTask(store, chunks, middle, to, threshold));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                double sumX = 0, sumY = 0, sumZ = 0;
+                for (int c = 0; c < chunks; c++) {
+                    sumX += accX[c][i];
+                    sumY += accY[c][i];
+                    sumZ += accZ[c][i];
+                }
+                store.ax[i] = sumX;
+                store.ay[i] = sumY;
+                store.az[i] = sumZ;
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package cosmicsystem;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+// Multiple time stepping (r-RESPA, impulse form): the forces are split into the near forces
+// between bodies of the same system (e.g. a planet and its moons, see 'Body.getSystem') and
+// the far forces of all other bodies. The far forces change slowly; they are evaluated with
+// the force engine only once per step of length dt and applied as two half kicks, while
+// the near forces (cheap, only pairs within a system) move the bodies with 'substeps'
+// leapfrog steps of length dt/substeps in between:
+// far kick(dt/2), substeps * (near kick(h/2) drift(h) near kick(h/2)), far kick(dt/2).
+// Like leapfrog this is symplectic and time reversible.
+//
+// A system with more than 'MAX_GROUP_SIZE' direct bodies (e.g. a flat system loaded from a
+// state file, where every pair would be near) is split by position into groups of at most
+// 'MAX_GROUP_SIZE' bodies (halving along the longest side of their box), so the substeps stay
+// O(N) instead of O(N²). Pairs of bodies in different groups then count as far.
+//
+// The far accelerations are the accelerations computed by the engine minus the near
+// accelerations, so the engine has to compute the forces within a system exactly (see
+// 'ForceEngine.isExactWithinSystems': the direct sum engines and 'HierarchicalForceEngine'; other
+// engines are rejected with an 'IllegalArgumentException'). The systems are read when the store
+// changes; the accelerations at the end of a step are reused for the next step, so the store
+// should only be advanced by this integrator (call 'reset' after changing it otherwise).
+public class RespaIntegrator implements Integrator {
+
+    private static final int MAX_GROUP_SIZE = 64;
+
+    private final int substeps;
+
+    private BodyStore store;
+    private int[] groupStart = new int[0]; // bodies of group g: members[groupStart[g]..groupStart[g+1])
+    private int[] members = new int[0];
+    private double[] nearX = new double[0], nearY = nearX, nearZ = nearX;
+    private double[] farX = nearX, farY = nearX, farZ = nearX;
+
+    // Takes 'substeps' steps with the near forces per evaluation of the far forces.
+    public RespaIntegrator(int substeps) {
+        if (substeps < 1) {
+            throw new IllegalArgumentException("substeps must be at least 1: " + substeps);
+        }
+        this.substeps = substeps;
+    }
+
+    public int getSubsteps() {
+        return substeps;
+    }
+
+    // Forgets the accelerations of the last step and the systems of the bodies.
+    public void reset() {
+        store = null;
+    }
+
+    public void step(BodyStore store, ForceEngine engine, double dt) {
+        int n = store.n;
+        if (this.store != store || nearX.length != n) {
+            start(store, engine);
+        }
+        kick(store, farX, farY, farZ, dt / 2);
+
+        double h = dt / substeps;
+        for (int s = 0; s < substeps; s++) {
+            kick(store, nearX, nearY, nearZ, h / 2);
+            store.drift(h);
+            computeNear(store);
+            kick(store, nearX, nearY, nearZ, h / 2);
+        }
+
+        computeFar(store, engine);
+        kick(store, farX, farY, farZ, dt / 2);
+    }
+
+    // Groups the bodies by the system which directly contains them and computes the first accelerations.
+    private void start(BodyStore store, ForceEngine engine) {
+        if (!engine.isExactWithinSystems()) {
+            throw new IllegalArgumentException("respa needs an engine which computes the forces within a system"
+                    + " exactly, not " + engine);
+        }
+        int n = store.n;
+        this.store = store;
+        IdentityHashMap<ComplexCosmicSystem, Integer> systems = new IdentityHashMap<>();
+        int[] group = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            ComplexCosmicSystem system = store.getBody(i).getSystem();
+            Integer g = system == null ? null : systems.get(system);
+            if (g == null) {
+                g = count++;
+                if (system != null) {
+                    systems.put(system, g);
+                }
+            }
+            group[i] = g;
+        }
+        // counting sort of the bodies by group.
+        groupStart = new int[count + 1];
+        for (int i = 0; i < n; i++) {
+            groupStart[group[i] + 1]++;
+        }
+        for (int g = 0; g < count; g++) {
+            groupStart[g + 1] += groupStart[g];
+        }
+        int[] next = Arrays.copyOf(groupStart, count);
+        members = new int[n];
+        for (int i = 0; i < n; i++) {
+            members[next[group[i]]++] = i;
+        }
+        // groups which are too large are split by position.
+        int[] starts = new int[n + 1];
+        int groups = 0;
+        for (int g = 0; g < count; g++) {
+            groups = split(store, groupStart[g], groupStart[g + 1], starts, groups);
+        }
+        starts[groups] = n;
+        groupStart = Arrays.copyOf(starts, groups + 1);
+
+        nearX = new double[n];
+        nearY = new double[n];
+        nearZ = new double[n];
+        farX = new double[n];
+        farY = new double[n];
+        farZ = new double[n];
+        computeNear(store);
+        computeFar(store, engine);
+    }
+
+    // Splits the group members[from..to) into groups of at most 'MAX_GROUP_SIZE' bodies by halving
+    // it along the longest side of its bounding box, and adds the starts of the new groups to
+    // 'starts' (from index 'groups'). Returns the new number of groups.
+    private int split(BodyStore store, int from, int to, int[] starts, int groups) {
+        if (to - from <= MAX_GROUP_SIZE) {
+            starts[groups] = from;
+            return groups + 1;
+        }
+        double[][] coordinates = {store.x, store.y, store.z};
+        double[] axis = null;
+        double longest = -1;
+        for (double[] c : coordinates) {
+            double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            for (int a = from; a < to; a++) {
+                min = Math.min(min, c[members[a]]);
+                max = Math.max(max, c[members[a]]);
+            }
+            if (max - min > longest) {
+                longest = max - min;
+                axis = c;
+            }
+        }
+        double[] key = axis;
+        Integer[] sorted = new Integer[to - from];
+        for (int a = from; a < to; a++) {
+            sorted[a - from] = members[a];
+        }
+        Arrays.sort(sorted, (i, j) -> Double.compare(key[i], key[j]));
+        for (int a = from; a < to; a++) {
+            members[a] = sorted[a - from];
+        }
+        int middle = (from + to) >>> 1;
+        groups = split(store, from, middle, starts, groups);
+        return split(store, middle, to, starts, groups);
+    }
+
+    // Computes the accelerations caused by the other bodies of the same group (each pair once).
+    private void computeNear(BodyStore store) {
+        double[] x = store.x, y = store.y, z = store.z, m = store.mass;
+        Arrays.fill(nearX, 0);
+        Arrays.fill(nearY, 0);
+        Arrays.fill(nearZ, 0);
+        for (int g = 0; g + 1 < groupStart.length; g++) {
+            int end = groupStart[g + 1];
+            for (int a = groupStart[g]; a < end; a++) {
+                int i = members[a];
+                double px = x[i], py = y[i], pz = z[i], mi = m[i];
+                double sumX = 0, sumY = 0, sumZ = 0;
+                for (int b = a + 1; b < end; b++) {
+                    int j = members[b];
+                    double dx = x[j] - px, dy = y[j] - py, dz = z[j] - pz;
+                    double d2 = dx * dx + dy * dy + dz * dz;
+                    double s = Simulation.G / (d2 * Math.sqrt(d2));
+                    double si = s * m[j], sj = s * mi;
+                    sumX += dx * si;
+                    sumY += dy * si;
+                    sumZ += dz * si;
+                    nearX[j] -= dx * sj;
+                    nearY[j] -= dy * sj;
+                    nearZ[j] -= dz * sj;
+                }
+                nearX[i] += sumX;
+                nearY[i] += sumY;
+                nearZ[i] += sumZ;
+            }
+        }
+    }
+
+    // Computes all accelerations with 'engine' (left in the store) and the far part of them
+    // (requires the near accelerations at the current positions).
+    private void computeFar(BodyStore store, ForceEngine engine) {
+        engine.computeAccelerations(store);
+        for (int i = 0; i < store.n; i++) {
+            farX[i] = store.ax[i] - nearX[i];
+            farY[i] = store.ay[i] - nearY[i];
+            farZ[i] = store.az[i] - nearZ[i];
+        }
+    }
+
+    private static void kick(BodyStore store, double[] ax, double[] ay, double[] az, double dt) {
+        for (int i = 0; i < store.n; i++) {
+            store.vx[i] += ax[i] * dt;
+            store.vy[i] += ay[i] * dt;
+            store.vz[i] += az[i] * dt;
+        }
+    }
+
+    public String toString() {
+        return "respa (" + substeps + " substeps)";
+    }
+}
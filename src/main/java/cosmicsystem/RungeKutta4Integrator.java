@@ -0,0 +1,69 @@
+package cosmicsystem;
+
+// Classical fourth order Runge-Kutta method, four force evaluations per step. Very accurate
+// for short runs, but not symplectic: the energy slowly drifts over long runs.
+public class RungeKutta4Integrator implements Integrator {
+
+    // state at the beginning of the step and weighted sums of the slopes, per coordinate.
+    private double[] x0 = new double[0], y0 = x0, z0 = x0, vx0 = x0, vy0 = x0, vz0 = x0;
+    private double[] sx = x0, sy = x0, sz = x0, svx = x0, svy = x0, svz = x0;
+
+    public void step(BodyStore store, ForceEngine engine, double dt) {
+        int n = store.n;
+        if (x0.length < n) {
+            x0 = new double[n]; y0 = new double[n]; z0 = new double[n];
+            vx0 = new double[n]; vy0 = new double[n]; vz0 = new double[n];
+            sx = new double[n]; sy = new double[n]; sz = new double[n];
+            svx = new double[n]; svy = new double[n]; svz = new double[n];
+        }
+        System.arraycopy(store.x, 0, x0, 0, n);
+        System.arraycopy(store.y, 0, y0, 0, n);
+        System.arraycopy(store.z, 0, z0, 0, n);
+        System.arraycopy(store.vx, 0, vx0, 0, n);
+        System.arraycopy(store.vy, 0, vy0, 0, n);
+        System.arraycopy(store.vz, 0, vz0, 0, n);
+
+        // the slopes k1..k4 are weighted 1, 2, 2, 1 and evaluated at 0, dt/2, dt/2 and dt.
+        stage(store, engine, n, 1, 0.5 * dt, true);
+        stage(store, engine, n, 2, 0.5 * dt, false);
+        stage(store, engine, n, 2, dt, false);
+        stage(store, engine, n, 1, 0, false);
+
+        double h = dt / 6;
+        finish(n, store.x, store.vx, x0, vx0, sx, svx, h);
+        finish(n, store.y, store.vy, y0, vy0, sy, svy, h);
+        finish(n, store.z, store.vz, z0, vz0, sz, svz, h);
+    }
+
+    // Evaluates the slope at the current state of 'store', adds it with 'weight' to the sums and
+    // sets 'store' to the state at which the next slope is evaluated ('next' seconds after the start).
+    private void stage(BodyStore store, ForceEngine engine, int n, double weight, double next, boolean first) {
+        engine.computeAccelerations(store);
+        stage(n, store.x, store.vx, store.ax, x0, vx0, sx, svx, weight, next, first);
+        stage(n, store.y, store.vy, store.ay, y0, vy0, sy, svy, weight, next, first);
+        stage(n, store.z, store.vz, store.az, z0, vz0, sz, svz, weight, next, first);
+    }
+
+    private static void stage(int n, double[] x, double[] v, double[] a, double[] x0, double[] v0,
+                              double[] sx, double[] sv, double weight, double next, boolean first) {
+        for (int i = 0; i < n; i++) {
+            double vi = v[i], ai = a[i];
+            sx[i] = (first ? 0 : sx[i]) + weight * vi;
+            sv[i] = (first ? 0 : sv[i]) + weight * ai;
+            x[i] = x0[i] + next * vi;
+            v[i] = v0[i] + next * ai;
+        }
+    }
+
+    private static void finish(int n, double[] x, double[] v, double[] x0, double[] v0,
+                               double[] sx, double[] sv, double h) {
+        for (int i = 0; i < n; i++) {
+            x[i] = x0[i] + h * sx[i];
+            v[i] = v0[i] + h * sv[i];
+        }
+    }
+
+    public String toString() {
+        return "rk4";
+    }
+}
@@ -0,0 +1,200 @@
+package cosmicsystem;
+
+import java.awt.Color;
+import java.awt.GraphicsEnvironment;
+import java.io.File;
+import java.io.IOException;
+
+public class Simulation {
+
+    // gravitational constant
+    public static final double G = 6.6743e-11;
+    // one astronomical unit (AU) is the average distance of earth to the sun.
+    public static final double AU = 150e9;
+    // all quantities are based on units of kilogram respectively second and meter.
+
+    // The main simulation method using instances of other classes.
+    public static void main (String[] args) throws IOException {
+
+        //todo: extend simulation to use all classes
+
+        // "--load=..." starts from a state file (see 'StateFile') instead of the example system.
+        String load = option(args, "load", null);
+        ComplexCosmicSystem bodies = load != null ? StateFile.load(load) : exampleSystem();
+
+        ForceEngine engine = forceEngine(args, bodies);
+        Integrator integrator = integrator(args);
+        if (integrator instanceof HermiteIntegrator && !engine.computesJerks()) {
+            throw new IllegalArgumentException("The integrator hermite needs an engine which computes jerks"
+                    + " (direct or parallel), not " + engine);
+        }
+        if (integrator instanceof RespaIntegrator && !engine.isExactWithinSystems()) {
+            throw new IllegalArgumentException("The integrator respa needs an engine which computes the forces"
+                    + " within a system exactly (direct, parallel or hierarchical), not " + engine);
+        }
+        // length of one simulation step in seconds.
+        double dt = Double.parseDouble(option(args, "dt", "1"));
+        // "--packed" runs the force and move phases on a 'BodyStore' instead of the 'Body' objects
+        // (always the case for integrators other than "euler").
+        boolean packed = hasOption(args, "packed") || !(integrator instanceof SymplecticEulerIntegrator);
+        // "--headless" only advances the state (also without a display), for "--duration=..." seconds.
+        boolean headless = hasOption(args, "headless") || GraphicsEnvironment.isHeadless();
+
+        // the bodies only change when they collide (see 'SimulationRunner'), so they are collected only once.
+        Body[] all = toArray(bodies);
+        SimulationRunner runner = new SimulationRunner(all, engine, integrator, dt, packed);
+        // "--collisions" merges bodies which touch each other and prints every collision.
+        if (hasOption(args, "collisions")) {
+            runner.detectCollisions(System.out::println);
+        }
+
+        System.out.println("Running simulation (" + engine + ", " + integrator + ", dt = " + dt + " s)...");
+
+        if (headless) {
+            double duration = Double.parseDouble(option(args, "duration", "" + 365 * 24 * 3600));
+            long start = System.nanoTime();
+            runner.run(duration);
+            runner.writeBack();
+            System.out.println(runner.getSteps() + " steps (" + runner.getSeconds() + " s) in "
+                    + (System.nanoTime() - start) / 1e9 + " s:");
+            for (Body body : runner.getBodies()) {
+                System.out.println(body);
+            }
+            // "--save=..." writes the final state to a state file.
+            String save = option(args, "save", null);
+            if (save != null) {
+                StateFile.save(bodies, save);
+            }
+            return;
+        }
+
+        // drawing runs on its own thread and gets a copy of the state.
+        SimulationRenderer renderer = new SimulationRenderer(2*AU);
+        renderer.start();
+
+        double nextFrame = 3*3600;
+
+        // simulation loop
+        while(true) {
+            runner.step();
+
+            // show all movements in StdDraw canvas only every 3 hours (to speed up the simulation)
+            if (runner.getSeconds() >= nextFrame) {
+                nextFrame += 3*3600;
+                renderer.publish(runner.snapshot());
+            }
+        }
+    }
+
+    // Returns the example cosmic system (sun and inner planets).
+    public static ComplexCosmicSystem exampleSystem() {
+        // (java.awt colors: StdDraw would open a window as soon as it is used.)
+        Body sun = new Body("Sol", 1.989e30, 696340e3, new Vector3(0,0,0) ,new Vector3(0,0,0), Color.YELLOW);
+        Body earth = new Body("Earth", 5.972e24, 6371e3, new Vector3(148e9,0,0) ,new Vector3(0,29.29e3,0), Color.BLUE);
+        Body mercury = new Body("Mercury", 3.301e23, 2.4397e3, new Vector3(-46.0e9,0,0) ,new Vector3(0,-47.87e3,0), Color.RED);
+        Body venus = new Body("Venus",4.86747e24,6052e3,new Vector3(-1.707667e10,1.066132e11,2.450232e9),new Vector3(-34446.02,-5567.47,2181.10),Color.PINK);
+        Body mars = new Body("Mars",6.41712e23,3390e3,new Vector3(-1.010178e11,-2.043939e11,-1.591727E9),new Vector3(20651.98,-10186.67,-2302.79),Color.RED);
+
+        return new ComplexCosmicSystem("SolarSystem", sun, earth, mercury, venus, mars);
+    }
+
+    // Returns the force engine selected by the command line arguments:
+    // "--engine=direct" (default) for the exact pairwise sum (each pair only once with "--symmetric"),
+    // "--engine=parallel" for the direct sum on "--threads=..." cores (default: all, bit-for-bit
+    // reproducible with "--deterministic"), or "--engine=barnes-hut" for the Barnes-Hut approximation
+    // with opening angle "--theta=..." (default 0.5), or "--engine=hierarchical" for the approximation
+    // by the subsystems of 'system' (see 'HierarchicalForceEngine', also with "--theta=...").
+    public static ForceEngine forceEngine(String[] args, ComplexCosmicSystem system) {
+        String engine = option(args, "engine", "direct");
+        if (engine.equals("direct")) {
+            return new DirectSumForceEngine(hasOption(args, "symmetric"));
+        }
+        if (engine.equals("parallel")) {
+            int threads = Integer.parseInt(option(args, "threads", "" + Runtime.getRuntime().availableProcessors()));
+            return new ParallelForceEngine(threads, hasOption(args, "deterministic"));
+        }
+        if (engine.equals("barnes-hut")) {
+            return new BarnesHutForceEngine(Double.parseDouble(option(args, "theta", "0.5")));
+        }
+        if (engine.equals("hierarchical") && system != null) {
+            return new HierarchicalForceEngine(system, Double.parseDouble(option(args, "theta", "0.5")));
+        }
+        throw new IllegalArgumentException("Unknown force engine: " + engine);
+    }
+
+    // Returns the force engine selected by the command line arguments (see above; without a system,
+    // so "--engine=hierarchical" is not available).
+    public static ForceEngine forceEngine(String[] args) {
+        return forceEngine(args, null);
+    }
+
+    // Returns the integrator selected by the command line argument "--integrator=...":
+    // "euler" (default, first order), "leapfrog" (second order), "yoshida" (fourth order, symplectic)
+    // "rk4" (fourth order Runge-Kutta), "block" (leapfrog with individual time steps down to
+    // dt/2^30 per body, accuracy parameter "--eta=...", default 0.02), "hermite" (fourth order
+    // predictor-corrector with jerks, only with "--engine=direct" or "parallel"), "wisdom-holman"
+    // (exact Kepler orbits around the heaviest body, for steps of days; sums the other forces
+    // directly, "--engine" is not used) or "respa" (forces from other systems only once per step,
+    // forces within a system on "--substeps=..." substeps, default 8; "--engine" has to compute
+    // the forces within a system exactly, like "direct", "parallel" or "hierarchical").
+    public static Integrator integrator(String[] args) {
+        String integrator = option(args, "integrator", "euler");
+        if (integrator.equals("euler")) {
+            return new SymplecticEulerIntegrator();
+        }
+        if (integrator.equals("leapfrog")) {
+            return new LeapfrogIntegrator();
+        }
+        if (integrator.equals("yoshida")) {
+            return new YoshidaIntegrator();
+        }
+        if (integrator.equals("rk4")) {
+            return new RungeKutta4Integrator();
+        }
+        if (integrator.equals("block")) {
+            return new BlockTimeStepIntegrator(Double.parseDouble(option(args, "eta", "0.02")));
+        }
+        if (integrator.equals("hermite")) {
+            return new HermiteIntegrator();
+        }
+        if (integrator.equals("respa")) {
+            return new RespaIntegrator(Integer.parseInt(option(args, "substeps", "8")));
+        }
+        if (integrator.equals("wisdom-holman")) {
+            return new WisdomHolmanIntegrator();
+        }
+        throw new IllegalArgumentException("Unknown integrator: " + integrator);
+    }
+
+    // Returns the value of the command line argument "--name=value", or 'defaultValue'
+    // if there is no such argument.
+    public static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+
+    // Returns 'true' if the command line arguments contain the flag "--name".
+    public static boolean hasOption(String[] args, String name) {
+        for (String arg : args) {
+            if (arg.equals("--" + name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns the bodies of 'bodies' in iteration order (references, not copies).
+    public static Body[] toArray(BodyIterable bodies) {
+        int[] count = {0};
+        bodies.forEachBody(body -> count[0]++);
+        Body[] result = new Body[count[0]];
+        count[0] = 0;
+        bodies.forEachBody(body -> result[count[0]++] = body);
+        return result;
+    }
+}
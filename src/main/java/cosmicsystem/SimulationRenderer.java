@@ -0,0 +1,68 @@
+package cosmicsystem;
+
+// Draws the snapshots of a running simulation with StdDraw on a separate thread. 'publish'
+// only replaces the snapshot to be drawn next and never blocks, so a slow frame does not
+// stall the simulation; snapshots published while a frame is drawn are skipped except for
+// the most recent one.
+public class SimulationRenderer extends Thread {
+
+    private final double scale;
+    private SimulationSnapshot next; // the snapshot to be drawn next, or null.
+    private long skipped;
+
+    // Draws the area [-scale, scale] x [-scale, scale] (in meters).
+    public SimulationRenderer(double scale) {
+        super("simulation-renderer");
+        this.scale = scale;
+        setDaemon(true);
+    }
+
+    // Hands 'snapshot' to the render thread.
+    public synchronized void publish(SimulationSnapshot snapshot) {
+        if (next != null) {
+            skipped++;
+        }
+        next = snapshot;
+        notifyAll();
+    }
+
+    // Returns the number of snapshots which were replaced before they were drawn.
+    public synchronized long getSkipped() {
+        return skipped;
+    }
+
+    private synchronized SimulationSnapshot take() throws InterruptedException {
+        while (next == null) {
+            wait();
+        }
+        SimulationSnapshot snapshot = next;
+        next = null;
+        return snapshot;
+    }
+
+    public void run() {
+        // StdDraw is only used by this thread.
+        StdDraw.setCanvasSize(500, 500);
+        StdDraw.setXscale(-scale, scale);
+        StdDraw.setYscale(-scale, scale);
+        StdDraw.enableDoubleBuffering();
+        StdDraw.clear(StdDraw.BLACK);
+
+        try {
+            while (true) {
+                SimulationSnapshot snapshot = take();
+                // clear old positions (exclude the following line if you want to draw orbits).
+                StdDraw.clear(StdDraw.BLACK);
+
+                // draw new positions
+                for (int i = 0; i < snapshot.size(); i++) {
+                    snapshot.getPosition(i).drawAsDot(snapshot.getRadius(i), snapshot.getColor(i));
+                }
+                // show new positions
+                StdDraw.show();
+            }
+        } catch (InterruptedException e) {
+            // stop drawing.
+        }
+    }
+}
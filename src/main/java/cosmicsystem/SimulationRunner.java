@@ -0,0 +1,172 @@
+package cosmicsystem;
+
+import java.util.function.Consumer;
+
+// Advances the state of a set of bodies step by step without drawing anything, so it can
+// run without a display (see "--headless" in 'Simulation'). The bodies are moved either on
+// a packed 'BodyStore' with an 'Integrator', or directly on the 'Body' objects.
+// With 'detectCollisions', bodies which touch each other after a step are merged (see
+// 'CollisionDetector'); then the bodies (and the store) are replaced by new arrays.
+public class SimulationRunner {
+
+    private Body[] bodies;
+    private BodyStore store; // null if the 'Body' objects are moved directly.
+    private final boolean packed;
+    private final ForceEngine engine;
+    private final Integrator integrator;
+    private final double dt;
+    private double seconds;
+    private long steps;
+
+    private CollisionDetector detector; // null if collisions are not detected.
+    private Consumer<CollisionEvent> listener;
+    private double[] radius, px, py, pz;
+    private long collisions;
+
+    // Moves 'bodies' with 'engine' and 'integrator' in steps of 'dt' seconds. If 'packed' is false,
+    // the bodies are moved by 'Body.move' and the integrator is not used.
+    public SimulationRunner(Body[] bodies, ForceEngine engine, Integrator integrator, double dt, boolean packed) {
+        this.bodies = bodies;
+        this.store = packed ? new BodyStore(bodies) : null;
+        this.packed = packed;
+        this.engine = engine;
+        this.integrator = integrator;
+        this.dt = dt;
+    }
+
+    // Advances all bodies by one step.
+    public void step() {
+        if (store != null) {
+            integrator.step(store, engine, dt);
+        } else {
+            // for each body compute the total force exerted on it.
+            engine.computeForces(bodies);
+
+            // move each body according to the total force exerted on it.
+            for (Body body : bodies) {
+                body.move(dt);
+            }
+        }
+        seconds += dt;
+        steps++;
+        if (detector != null) {
+            collide();
+        }
+    }
+
+    // Merges colliding bodies after every step and reports every merge to 'listener' (may be null).
+    public void detectCollisions(Consumer<CollisionEvent> listener) {
+        this.detector = new CollisionDetector();
+        this.listener = listener;
+    }
+
+    // Merges all bodies which overlap. A body which overlaps with several others is merged with
+    // all of them (one after the other).
+    private void collide() {
+        int n = bodies.length;
+        if (radius == null) {
+            radius = new double[n];
+            for (int i = 0; i < n; i++) {
+                radius[i] = bodies[i].getRadius();
+            }
+            if (store == null) {
+                px = new double[n];
+                py = new double[n];
+                pz = new double[n];
+            }
+        }
+        int pairs;
+        if (store != null) {
+            pairs = detector.detect(store.x, store.y, store.z, radius, n);
+        } else {
+            for (int i = 0; i < n; i++) {
+                Vector3 position = bodies[i].getPosition();
+                px[i] = position.getX();
+                py[i] = position.getY();
+                pz[i] = position.getZ();
+            }
+            pairs = detector.detect(px, py, pz, radius, n);
+        }
+        if (pairs == 0) {
+            return;
+        }
+
+        // the merged bodies are computed from the current state of the 'Body' objects.
+        writeBack();
+        Body[] current = bodies.clone();
+        int[] into = new int[n]; // index of the body a body was merged into (union-find).
+        for (int i = 0; i < n; i++) {
+            into[i] = i;
+        }
+        int removed = 0;
+        for (int k = 0; k < pairs; k++) {
+            int i = find(into, detector.getFirst(k));
+            int j = find(into, detector.getSecond(k));
+            if (i == j) {
+                continue;
+            }
+            Body merged = CollisionDetector.merge(current[i], current[j]);
+            CollisionEvent event = new CollisionEvent(seconds, current[i], current[j], merged);
+            current[i] = merged;
+            current[j] = null;
+            into[j] = i;
+            removed++;
+            collisions++;
+            if (listener != null) {
+                listener.accept(event);
+            }
+        }
+
+        Body[] remaining = new Body[n - removed];
+        int[] index = into; // new index of every body, -1 if it was merged into another one.
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (current[i] != null) {
+                index[i] = count;
+                remaining[count++] = current[i];
+            } else {
+                index[i] = -1;
+            }
+        }
+        detector.renumber(index);
+        bodies = remaining;
+        store = packed ? new BodyStore(remaining) : null;
+        radius = null;
+    }
+
+    private static int find(int[] into, int i) {
+        while (into[i] != i) {
+            into[i] = into[into[i]];
+            i = into[i];
+        }
+        return i;
+    }
+
+    // Advances all bodies by steps until at least 'duration' more seconds are simulated.
+    public void run(double duration) {
+        double end = seconds + duration;
+        while (seconds < end) {
+            step();
+        }
+    }
+
+    // Returns a snapshot of the current positions.
+    public SimulationSnapshot snapshot() {
+        return store != null ? new SimulationSnapshot(seconds, store) : new SimulationSnapshot(seconds, bodies);
+    }
+
+    // Copies the current state to the 'Body' objects (needed only for the packed store).
+    public void writeBack() {
+        if (store != null) {
+            store.writeBack();
+        }
+    }
+
+    public Body[] getBodies() {return bodies;}
+    public BodyStore getStore() {return store;}
+    public double getSeconds() {return seconds;}
+    public long getSteps() {return steps;}
+    // Returns the number of merges so far.
+    public long getCollisions() {return collisions;}
+    public double getDt() {return dt;}
+}
@@ -0,0 +1,54 @@
+package cosmicsystem;
+
+import java.awt.Color;
+
+// An immutable copy of the positions of all bodies at one point in simulated time. The
+// simulation hands snapshots to the render thread, so drawing never sees a half-updated
+// state and the simulation never waits for a frame to be drawn.
+public final class SimulationSnapshot {
+
+    private final double seconds;
+    private final double[] x, y, z;
+    private final double[] radius;
+    private final Color[] color;
+
+    // Copies the positions of the bodies of 'store' (after 'seconds' simulated seconds).
+    public SimulationSnapshot(double seconds, BodyStore store) {
+        int n = store.size();
+        this.seconds = seconds;
+        this.x = java.util.Arrays.copyOf(store.x, n);
+        this.y = java.util.Arrays.copyOf(store.y, n);
+        this.z = java.util.Arrays.copyOf(store.z, n);
+        this.radius = new double[n];
+        this.color = new Color[n];
+        for (int i = 0; i < n; i++) {
+            radius[i] = store.getBody(i).getRadius();
+            color[i] = store.getBody(i).getColor();
+        }
+    }
+
+    // Copies the positions of 'bodies' (after 'seconds' simulated seconds).
+    public SimulationSnapshot(double seconds, Body[] bodies) {
+        int n = bodies.length;
+        this.seconds = seconds;
+        this.x = new double[n];
+        this.y = new double[n];
+        this.z = new double[n];
+        this.radius = new double[n];
+        this.color = new Color[n];
+        for (int i = 0; i < n; i++) {
+            Vector3 position = bodies[i].getPosition();
+            x[i] = position.getX();
+            y[i] = position.getY();
+            z[i] = position.getZ();
+            radius[i] = bodies[i].getRadius();
+            color[i] = bodies[i].getColor();
+        }
+    }
+
+    public double getSeconds() {return seconds;}
+    public int size() {return x.length;}
+    public Vector3 getPosition(int i) {return new Vector3(x[i], y[i], z[i]);}
+    public double getRadius(int i) {return radius[i];}
+    public Color getColor(int i) {return color[i];}
+}
@@ -0,0 +1,311 @@
+package cosmicsystem;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.zip.CRC32;
+
+// Saves the complete state of a 'ComplexCosmicSystem' (all bodies with mass, radius, position,
+// movement and color, and the structure of the subsystems) in a compact binary file, and
+// restores it. Loading maps the file into memory ('FileChannel.map') instead of reading it
+// through a stream.
+//
+// File format (little endian):
+//   int magic "CSSF", int version, long number of bodies,
+//   the root system (see below), long CRC32 of all preceding bytes.
+// A component starts with a byte (0 = body, 1 = system) and its name (int length, UTF-8 bytes).
+// A body continues with mass, radius, position (x, y, z) and movement (x, y, z) as doubles and
+// its color as int (ARGB, 0 = no color); a system continues with the number of its components
+// (int) followed by the components.
+// Nested systems are written and read with an explicit stack instead of recursion, so any
+// nesting depth works (a deeply nested file cannot overflow the call stack).
+public class StateFile {
+
+    private static final int MAGIC = 0x46535343; // "CSSF" in little endian
+    private static final int VERSION = 1;
+    private static final byte BODY = 0;
+    private static final byte SYSTEM = 1;
+    private static final int MAX_NAME_LENGTH = 1 << 16;
+    // size of the regions of the file which are mapped at a time.
+    private static final int WINDOW = 1 << 28;
+
+    private StateFile() {}
+
+    // Writes the state of 'system' to the file 'fileName' (an existing file is replaced).
+    public static void save(ComplexCosmicSystem system, String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Output out = new Output(channel);
+            out.need(16);
+            out.buffer.putInt(MAGIC);
+            out.buffer.putInt(VERSION);
+            out.buffer.putLong(system.numberOfBodies());
+            writeSystem(out, system);
+            out.flush();
+
+            ByteBuffer checksum = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            checksum.putLong(out.crc.getValue()).flip();
+            while (checksum.hasRemaining()) {
+                channel.write(checksum);
+            }
+        }
+    }
+
+    // Reads a system from the file 'fileName'. Throws a 'StateFileNotFoundException' if there is
+    // no such file and a 'StateFileFormatException' if the file is not a valid state file.
+    public static ComplexCosmicSystem load(String fileName) throws IOException {
+        Path path = Paths.get(fileName);
+        if (!Files.isRegularFile(path)) {
+            throw new StateFileNotFoundException();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 24) {
+                throw new StateFileFormatException();
+            }
+            verifyChecksum(channel, size - 8);
+
+            Input in = new Input(channel, size - 8);
+            in.need(16);
+            if (in.buffer.getInt() != MAGIC || in.buffer.getInt() != VERSION) {
+                throw new StateFileFormatException();
+            }
+            long bodies = in.buffer.getLong();
+            in.need(1);
+            if (in.buffer.get() != SYSTEM) {
+                throw new StateFileFormatException();
+            }
+            ComplexCosmicSystem system = readSystem(in);
+            if (in.position() != size - 8 || system.numberOfBodies() != bodies) {
+                throw new StateFileFormatException();
+            }
+            return system;
+        }
+    }
+
+    // Writes 'root' and all its components (depth first, with an explicit stack).
+    private static void writeSystem(Output out, ComplexCosmicSystem root) throws IOException {
+        ArrayDeque<myCosmicNode> stack = new ArrayDeque<>();
+        writeHeader(out, root);
+        myCosmicNode node = root.getHead();
+        while (true) {
+            if (node == null) {
+                // all components of the current system are written, continue with its parent.
+                if (stack.isEmpty()) {
+                    return;
+                }
+                node = stack.pop().getNext();
+                continue;
+            }
+            CosmicComponent component = node.get();
+            if (component instanceof Body) {
+                writeBody(out, (Body) component);
+                node = node.getNext();
+            } else {
+                ComplexCosmicSystem system = (ComplexCosmicSystem) component;
+                writeHeader(out, system);
+                stack.push(node);
+                node = system.getHead();
+            }
+        }
+    }
+
+    private static void writeBody(Output out, Body body) throws IOException {
+        byte[] name = body.getName().getBytes(StandardCharsets.UTF_8);
+        out.need(1 + 4 + name.length + 8 * 8 + 4);
+        out.buffer.put(BODY);
+        out.buffer.putInt(name.length);
+        out.buffer.put(name);
+        out.buffer.putDouble(body.getMass());
+        out.buffer.putDouble(body.getRadius());
+        out.buffer.putDouble(body.getPosition().getX());
+        out.buffer.putDouble(body.getPosition().getY());
+        out.buffer.putDouble(body.getPosition().getZ());
+        out.buffer.putDouble(body.getCurrentMovement().getX());
+        out.buffer.putDouble(body.getCurrentMovement().getY());
+        out.buffer.putDouble(body.getCurrentMovement().getZ());
+        out.buffer.putInt(body.getColor() == null ? 0 : body.getColor().getRGB());
+    }
+
+    // Writes kind, name and number of components of 'system'.
+    private static void writeHeader(Output out, ComplexCosmicSystem system) throws IOException {
+        byte[] name = system.getName().getBytes(StandardCharsets.UTF_8);
+        int count = 0;
+        for (myCosmicNode node = system.getHead(); node != null; node = node.getNext()) {
+            count++;
+        }
+        out.need(1 + 4 + name.length + 4);
+        out.buffer.put(SYSTEM);
+        out.buffer.putInt(name.length);
+        out.buffer.put(name);
+        out.buffer.putInt(count);
+    }
+
+    // Reads a system after its kind byte, including all nested systems (with an explicit stack).
+    // A nested system is added to its parent when it is complete.
+    private static ComplexCosmicSystem readSystem(Input in) throws IOException {
+        ArrayDeque<Reading> stack = new ArrayDeque<>();
+        stack.push(readHeader(in));
+        while (true) {
+            Reading current = stack.peek();
+            if (current.remaining == 0) {
+                stack.pop();
+                if (stack.isEmpty()) {
+                    return current.system;
+                }
+                stack.peek().add(current.system);
+                continue;
+            }
+            current.remaining--;
+            in.need(1);
+            byte kind = in.buffer.get();
+            if (kind == BODY) {
+                current.add(readBody(in));
+            } else if (kind == SYSTEM) {
+                stack.push(readHeader(in));
+            } else {
+                throw new StateFileFormatException();
+            }
+        }
+    }
+
+    // Reads name and number of components of a system.
+    private static Reading readHeader(Input in) throws IOException {
+        ComplexCosmicSystem system = new ComplexCosmicSystem(readName(in));
+        in.need(4);
+        int count = in.buffer.getInt();
+        if (count < 0) {
+            throw new StateFileFormatException();
+        }
+        return new Reading(system, count);
+    }
+
+    // A system which is being read.
+    private static class Reading {
+        private final ComplexCosmicSystem system;
+        private int remaining; // components which are not read yet
+
+        Reading(ComplexCosmicSystem system, int remaining) {
+            this.system = system;
+            this.remaining = remaining;
+        }
+
+        void add(CosmicComponent component) throws StateFileFormatException {
+            // two components with the same name.
+            if (!system.add(component)) {
+                throw new StateFileFormatException();
+            }
+        }
+    }
+
+    // Reads a body after its kind byte.
+    private static Body readBody(Input in) throws IOException {
+        String name = readName(in);
+        in.need(8 * 8 + 4);
+        ByteBuffer b = in.buffer;
+        double mass = b.getDouble();
+        double radius = b.getDouble();
+        Vector3 position = new Vector3(b.getDouble(), b.getDouble(), b.getDouble());
+        Vector3 movement = new Vector3(b.getDouble(), b.getDouble(), b.getDouble());
+        int rgb = b.getInt();
+        return new Body(name, mass, radius, position, movement, rgb == 0 ? null : new Color(rgb, true));
+    }
+
+    private static String readName(Input in) throws IOException {
+        in.need(4);
+        int length = in.buffer.getInt();
+        if (length < 0 || length > MAX_NAME_LENGTH) {
+            throw new StateFileFormatException();
+        }
+        in.need(length);
+        byte[] name = new byte[length];
+        in.buffer.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private static void verifyChecksum(FileChannel channel, long length) throws IOException {
+        CRC32 crc = new CRC32();
+        for (long position = 0; position < length; position += WINDOW) {
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW, length - position)));
+        }
+        ByteBuffer stored = channel.map(FileChannel.MapMode.READ_ONLY, length, 8).order(ByteOrder.LITTLE_ENDIAN);
+        if (stored.getLong() != crc.getValue()) {
+            throw new StateFileFormatException();
+        }
+    }
+
+    // Writes through a buffer and computes the checksum of everything written.
+    private static class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32 crc = new CRC32();
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        // Makes sure 'bytes' bytes fit into the buffer.
+        void need(int bytes) throws IOException {
+            if (bytes > buffer.capacity()) {
+                throw new IOException("Record too large: " + bytes + " bytes");
+            }
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    // Reads the first 'length' bytes of a file through memory-mapped regions of at most 'WINDOW' bytes.
+    private static class Input {
+        private final FileChannel channel;
+        private final long length;
+        private long base; // position of 'buffer' in the file.
+        private MappedByteBuffer buffer;
+
+        Input(FileChannel channel, long length) throws IOException {
+            this.channel = channel;
+            this.length = length;
+            map(0);
+        }
+
+        // Makes sure the next 'bytes' bytes can be read from the buffer.
+        void need(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            long position = position();
+            if (position + bytes > length) {
+                throw new StateFileFormatException();
+            }
+            map(position);
+        }
+
+        long position() {
+            return base + buffer.position();
+        }
+
+        private void map(long position) throws IOException {
+            base = position;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW, length - position));
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+}
@@ -1,7 +1,11 @@
+package cosmicsystem;
+
 import java.io.IOException;
 
 public class StateFileFormatException extends IOException {
 
+    private static final long serialVersionUID = 1L;
+
     public StateFileFormatException() {
         super("File format is not valid!");
     }
@@ -1,7 +1,11 @@
+package cosmicsystem;
+
 import java.io.IOException;
 
 public class StateFileNotFoundException extends IOException {
 
+    private static final long serialVersionUID = 1L;
+
     public StateFileNotFoundException() {
         super("File cannot be found!");
     }
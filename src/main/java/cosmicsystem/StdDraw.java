@@ -1,3 +1,5 @@
+package cosmicsystem;
+
 /******************************************************************************
  *  Compilation:  javac StdDraw.java
  *  Execution:    java StdDraw
@@ -0,0 +1,16 @@
+package cosmicsystem;
+
+// First order, one force evaluation per step: the movement changes by the acceleration,
+// the position by the new movement. With dt = 1 this is exactly what 'Body.move' does.
+public class SymplecticEulerIntegrator implements Integrator {
+
+    public void step(BodyStore store, ForceEngine engine, double dt) {
+        engine.computeAccelerations(store);
+        store.kick(dt);
+        store.drift(dt);
+    }
+
+    public String toString() {
+        return "euler";
+    }
+}
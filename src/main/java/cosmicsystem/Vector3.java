@@ -1,3 +1,5 @@
+package cosmicsystem;
+
 import java.awt.*;
 
 // This class represents vectors in a 3D vector space.
@@ -20,6 +22,18 @@ public class Vector3 {
     public void setY(double y) { this.y = y;}
     public void setZ(double z) { this.z = z;}
 
+    // Sets the coordinates of this vector and returns this vector.
+    public Vector3 set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    // Sets the coordinates of this vector to those of 'v' and returns this vector.
+    public Vector3 set(Vector3 v) {
+        return set(v.x, v.y, v.z);
+    }
 
 
     // Returns the sum of this vector and vector 'v'.
@@ -49,6 +63,42 @@ public class Vector3 {
         return result;
     }
 
+    // The following methods change this vector instead of returning a new one
+    // (no allocation, e.g. for accumulating forces in the simulation loop).
+    // They return this vector, so calls can be chained.
+
+    // Adds vector 'v' to this vector.
+    public Vector3 add(Vector3 v) {
+        x += v.x;
+        y += v.y;
+        z += v.z;
+        return this;
+    }
+
+    // Adds d*v to this vector.
+    public Vector3 addScaled(Vector3 v, double d) {
+        x += v.x * d;
+        y += v.y * d;
+        z += v.z * d;
+        return this;
+    }
+
+    // Subtracts vector 'v' from this vector.
+    public Vector3 sub(Vector3 v) {
+        x -= v.x;
+        y -= v.y;
+        z -= v.z;
+        return this;
+    }
+
+    // Multiplies this vector by 'd'.
+    public Vector3 scale(double d) {
+        x *= d;
+        y *= d;
+        z *= d;
+        return this;
+    }
+
     // Returns the Euclidean distance of this vector
     // to the specified vector 'v'.
     public double distanceTo(Vector3 v) {
@@ -60,8 +110,12 @@ public class Vector3 {
 
     // Returns the length (norm) of this vector.
     public double length() {
-        Vector3 origin = new Vector3(0,0,0);
-        return this.distanceTo(origin);
+        return Math.sqrt(lengthSquared());
+    }
+
+    // Returns the squared length of this vector.
+    public double lengthSquared() {
+        return x*x + y*y + z*z;
     }
 
     // Normalizes this vector: changes the length of this vector such that it becomes 1.
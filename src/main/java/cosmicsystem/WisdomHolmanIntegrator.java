@@ -0,0 +1,191 @@
+package cosmicsystem;
+
+// Wisdom-Holman mapping in democratic heliocentric coordinates for systems with one dominant
+// body (e.g. a star with planets): the motion of every other body around the dominant body is
+// moved exactly along its Kepler orbit (see 'KeplerPropagator'), and only the much smaller
+// interactions between the other bodies are integrated numerically. So steps of several
+// days stay accurate and stable over very long times, where the other integrators need
+// steps of minutes.
+//
+// The coordinates are the positions relative to the dominant body and the movements relative
+// to the mass center of all bodies. One step is the symmetric composition
+// jump(dt/2) kepler(dt/2) interaction(dt) kepler(dt/2) jump(dt/2)
+// with one force evaluation; the "jump" moves the positions by the total momentum divided by
+// the dominant mass. The dominant body is the heaviest body of the store.
+//
+// The interactions are summed directly over all pairs of the other bodies (the dominant body
+// is left out, its force is part of the Kepler orbits). The force engine of 'step' is not
+// used: the force of the dominant body is much larger than the interactions, so subtracting
+// it from the forces of an approximating engine would leave mostly the approximation error.
+public class WisdomHolmanIntegrator implements Integrator {
+
+    private double[] qx = new double[0], qy = qx, qz = qx; // position relative to the dominant body
+    private double[] ux = new double[0], uy = ux, uz = ux; // movement relative to the mass center
+    private final double[] state = new double[6];
+
+    public void step(BodyStore store, ForceEngine engine, double dt) {
+        int n = store.n;
+        if (n < 2) {
+            store.drift(dt);
+            return;
+        }
+        if (qx.length < n) {
+            qx = new double[n];
+            qy = new double[n];
+            qz = new double[n];
+            ux = new double[n];
+            uy = new double[n];
+            uz = new double[n];
+        }
+        double[] x = store.x, y = store.y, z = store.z, vx = store.vx, vy = store.vy, vz = store.vz, m = store.mass;
+
+        int c = 0;
+        double total = 0, cx = 0, cy = 0, cz = 0, cvx = 0, cvy = 0, cvz = 0;
+        for (int i = 0; i < n; i++) {
+            if (m[i] > m[c]) {
+                c = i;
+            }
+            total += m[i];
+            cx += m[i] * x[i];
+            cy += m[i] * y[i];
+            cz += m[i] * z[i];
+            cvx += m[i] * vx[i];
+            cvy += m[i] * vy[i];
+            cvz += m[i] * vz[i];
+        }
+        // the mass center moves in a straight line.
+        cx /= total;
+        cy /= total;
+        cz /= total;
+        cvx /= total;
+        cvy /= total;
+        cvz /= total;
+        for (int i = 0; i < n; i++) {
+            qx[i] = x[i] - x[c];
+            qy[i] = y[i] - y[c];
+            qz[i] = z[i] - z[c];
+            ux[i] = vx[i] - cvx;
+            uy[i] = vy[i] - cvy;
+            uz[i] = vz[i] - cvz;
+        }
+
+        double mu = Simulation.G * m[c];
+        jump(store, c, dt / 2);
+        kepler(store, c, mu, dt / 2);
+
+        interaction(store, c, dt);
+
+        kepler(store, c, mu, dt / 2);
+        jump(store, c, dt / 2);
+        toStore(store, c, cx + cvx * dt, cy + cvy * dt, cz + cvz * dt, cvx, cvy, cvz);
+    }
+
+    // Changes the movements by the forces between the other bodies (without the dominant body),
+    // each pair once. The distances are the same in the relative positions.
+    private void interaction(BodyStore store, int c, double dt) {
+        int n = store.n;
+        double[] m = store.mass;
+        for (int i = 0; i < n; i++) {
+            if (i == c) continue;
+            double px = qx[i], py = qy[i], pz = qz[i], mi = m[i];
+            double sumX = 0, sumY = 0, sumZ = 0;
+            for (int j = i + 1; j < n; j++) {
+                if (j == c) continue;
+                double dx = qx[j] - px, dy = qy[j] - py, dz = qz[j] - pz;
+                double d2 = dx * dx + dy * dy + dz * dz;
+                double s = Simulation.G * dt / (d2 * Math.sqrt(d2));
+                double si = s * m[j], sj = s * mi;
+                sumX += dx * si;
+                sumY += dy * si;
+                sumZ += dz * si;
+                ux[j] -= dx * sj;
+                uy[j] -= dy * sj;
+                uz[j] -= dz * sj;
+            }
+            ux[i] += sumX;
+            uy[i] += sumY;
+            uz[i] += sumZ;
+        }
+    }
+
+    // Moves all relative positions by the total momentum (relative to the mass center) / dominant mass.
+    private void jump(BodyStore store, int c, double dt) {
+        int n = store.n;
+        double[] m = store.mass;
+        double px = 0, py = 0, pz = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == c) continue;
+            px += m[i] * ux[i];
+            py += m[i] * uy[i];
+            pz += m[i] * uz[i];
+        }
+        double s = dt / m[c];
+        for (int i = 0; i < n; i++) {
+            if (i == c) continue;
+            qx[i] += px * s;
+            qy[i] += py * s;
+            qz[i] += pz * s;
+        }
+    }
+
+    // Moves every body (except the dominant one) along its Kepler orbit around the dominant body.
+    private void kepler(BodyStore store, int c, double mu, double dt) {
+        double[] s = state;
+        for (int i = 0; i < store.n; i++) {
+            if (i == c) continue;
+            s[0] = qx[i];
+            s[1] = qy[i];
+            s[2] = qz[i];
+            s[3] = ux[i];
+            s[4] = uy[i];
+            s[5] = uz[i];
+            KeplerPropagator.propagate(mu, s, dt);
+            qx[i] = s[0];
+            qy[i] = s[1];
+            qz[i] = s[2];
+            ux[i] = s[3];
+            uy[i] = s[4];
+            uz[i] = s[5];
+        }
+    }
+
+    // Computes the positions and movements of the store from the relative coordinates and the mass
+    // center (position 'cx', 'cy', 'cz' and movement 'cvx', 'cvy', 'cvz').
+    private void toStore(BodyStore store, int c, double cx, double cy, double cz, double cvx, double cvy, double cvz) {
+        int n = store.n;
+        double[] m = store.mass;
+        double total = 0, sx = 0, sy = 0, sz = 0, px = 0, py = 0, pz = 0;
+        for (int i = 0; i < n; i++) {
+            total += m[i];
+            if (i == c) continue;
+            sx += m[i] * qx[i];
+            sy += m[i] * qy[i];
+            sz += m[i] * qz[i];
+            px += m[i] * ux[i];
+            py += m[i] * uy[i];
+            pz += m[i] * uz[i];
+        }
+        double x0 = cx - sx / total, y0 = cy - sy / total, z0 = cz - sz / total;
+        for (int i = 0; i < n; i++) {
+            if (i == c) {
+                store.x[i] = x0;
+                store.y[i] = y0;
+                store.z[i] = z0;
+                store.vx[i] = cvx - px / m[c];
+                store.vy[i] = cvy - py / m[c];
+                store.vz[i] = cvz - pz / m[c];
+            } else {
+                store.x[i] = x0 + qx[i];
+                store.y[i] = y0 + qy[i];
+                store.z[i] = z0 + qz[i];
+                store.vx[i] = cvx + ux[i];
+                store.vy[i] = cvy + uy[i];
+                store.vz[i] = cvz + uz[i];
+            }
+        }
+    }
+
+    public String toString() {
+        return "wisdom-holman";
+    }
+}
@@ -0,0 +1,31 @@
+package cosmicsystem;
+
+// Fourth order symplectic integrator of Yoshida (1990): three leapfrog steps with the
+// lengths w1*dt, w0*dt and w1*dt (w0 is negative), three force evaluations per step.
+public class YoshidaIntegrator implements Integrator {
+
+    private static final double CBRT2 = Math.cbrt(2);
+    private static final double W1 = 1 / (2 - CBRT2);
+    private static final double W0 = -CBRT2 / (2 - CBRT2);
+
+    // drift (c) and kick (d) coefficients.
+    private static final double C1 = W1 / 2, C2 = (W0 + W1) / 2;
+    private static final double D1 = W1, D2 = W0;
+
+    public void step(BodyStore store, ForceEngine engine, double dt) {
+        store.drift(C1 * dt);
+        engine.computeAccelerations(store);
+        store.kick(D1 * dt);
+        store.drift(C2 * dt);
+        engine.computeAccelerations(store);
+        store.kick(D2 * dt);
+        store.drift(C2 * dt);
+        engine.computeAccelerations(store);
+        store.kick(D1 * dt);
+        store.drift(C1 * dt);
+    }
+
+    public String toString() {
+        return "yoshida";
+    }
+}
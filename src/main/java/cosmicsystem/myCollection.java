@@ -1,3 +1,5 @@
+package cosmicsystem;
+
 import java.util.LinkedList;
 
 public class myCollection implements BodyCollection {
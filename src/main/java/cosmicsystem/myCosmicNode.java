@@ -1,3 +1,5 @@
+package cosmicsystem;
+
 public class myCosmicNode {
     private final CosmicComponent value;
     private myCosmicNode next;
@@ -1,3 +1,5 @@
+package cosmicsystem;
+
 public class myDLNode {
     private final Body value;
     private myDLNode next;
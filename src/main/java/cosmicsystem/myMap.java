@@ -1,3 +1,5 @@
+package cosmicsystem;
+
 public interface myMap {
 
  void put(Body body, ComplexCosmicSystem value);
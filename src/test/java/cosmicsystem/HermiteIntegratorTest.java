@@ -0,0 +1,68 @@
+package cosmicsystem;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class HermiteIntegratorTest {
+
+    private static final double DAY = 86400;
+
+    // Kinetic plus potential energy of all bodies of 'store'.
+    private static double energy(BodyStore store) {
+        double e = 0;
+        for (int i = 0; i < store.n; i++) {
+            e += 0.5 * store.mass[i] * (store.vx[i] * store.vx[i] + store.vy[i] * store.vy[i] + store.vz[i] * store.vz[i]);
+            for (int j = i + 1; j < store.n; j++) {
+                double dx = store.x[j] - store.x[i], dy = store.y[j] - store.y[i], dz = store.z[j] - store.z[i];
+                e -= Simulation.G * store.mass[i] * store.mass[j] / Math.sqrt(dx * dx + dy * dy + dz * dz);
+            }
+        }
+        return e;
+    }
+
+    // Returns the largest relative energy error of the example system over one year.
+    private static double energyError(ForceEngine engine, double dt) {
+        BodyStore store = new BodyStore(Simulation.exampleSystem());
+        Integrator integrator = new HermiteIntegrator();
+        double e0 = energy(store), max = 0;
+        for (long k = Math.round(365 * DAY / dt); k > 0; k--) {
+            integrator.step(store, engine, dt);
+            max = Math.max(max, Math.abs((energy(store) - e0) / e0));
+        }
+        return max;
+    }
+
+    @Test
+    public void energyErrorIsSmallAndOfFourthOrder() {
+        double coarse = energyError(new DirectSumForceEngine(), DAY / 4);
+        double fine = energyError(new DirectSumForceEngine(), DAY / 8);
+        assertTrue(coarse < 5e-7, "relative energy error " + coarse);
+        // halving the step divides the error by about 2^4.
+        assertTrue(coarse / fine > 10, "errors " + coarse + " and " + fine);
+    }
+
+    @Test
+    public void parallelEngineGivesTheSameResult() {
+        BodyStore direct = new BodyStore(Simulation.exampleSystem());
+        BodyStore parallel = new BodyStore(Simulation.exampleSystem());
+        Integrator a = new HermiteIntegrator(), b = new HermiteIntegrator();
+        ParallelForceEngine engine = new ParallelForceEngine(2, true);
+        for (int k = 0; k < 100; k++) {
+            a.step(direct, new DirectSumForceEngine(), DAY);
+            b.step(parallel, engine, DAY);
+        }
+        engine.shutdown();
+        assertArrayEquals(direct.x, parallel.x);
+        assertArrayEquals(direct.vy, parallel.vy);
+    }
+
+    @Test
+    public void engineWithoutJerksIsRejected() {
+        BodyStore store = new BodyStore(Simulation.exampleSystem());
+        assertThrows(UnsupportedOperationException.class,
+                () -> new HermiteIntegrator().step(store, new BarnesHutForceEngine(0.5), DAY));
+    }
+}
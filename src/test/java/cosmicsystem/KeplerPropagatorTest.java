@@ -0,0 +1,96 @@
+package cosmicsystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class KeplerPropagatorTest {
+
+    private static final double MU = Simulation.G * 1.989e30;
+
+    private static double period(double mu, double[] state) {
+        double r = Math.sqrt(state[0] * state[0] + state[1] * state[1] + state[2] * state[2]);
+        double v2 = state[3] * state[3] + state[4] * state[4] + state[5] * state[5];
+        double a = 1 / (2 / r - v2 / mu);
+        return 2 * Math.PI * Math.sqrt(a * a * a / mu);
+    }
+
+    // Energy and the z component of the angular momentum, which are conserved along the orbit.
+    private static double energy(double mu, double[] s) {
+        return (s[3] * s[3] + s[4] * s[4] + s[5] * s[5]) / 2 - mu / Math.sqrt(s[0] * s[0] + s[1] * s[1] + s[2] * s[2]);
+    }
+
+    private static double angularMomentum(double[] s) {
+        return s[0] * s[4] - s[1] * s[3];
+    }
+
+    private static void assertState(double[] expected, double[] actual, double tolerance) {
+        double r = Math.sqrt(expected[0] * expected[0] + expected[1] * expected[1] + expected[2] * expected[2]);
+        double v = Math.sqrt(expected[3] * expected[3] + expected[4] * expected[4] + expected[5] * expected[5]);
+        for (int k = 0; k < 3; k++) {
+            assertEquals(expected[k], actual[k], tolerance * r, "position " + k);
+            assertEquals(expected[k + 3], actual[k + 3], tolerance * v, "movement " + k);
+        }
+    }
+
+    @Test
+    public void circularOrbitReturnsAfterOnePeriod() {
+        double r = Simulation.AU;
+        double[] start = {r, 0, 0, 0, Math.sqrt(MU / r), 0};
+        double[] state = start.clone();
+        KeplerPropagator.propagate(MU, state, period(MU, start));
+        assertState(start, state, 1e-10);
+    }
+
+    @Test
+    public void eccentricOrbitReturnsAfterOnePeriod() {
+        // e = 0.99, starting at the closest point.
+        double r = 0.01 * Simulation.AU;
+        double[] start = {r, 0, 0, 0, Math.sqrt(MU * 1.99 / r), 1e3};
+        double[] state = start.clone();
+        KeplerPropagator.propagate(MU, state, period(MU, start));
+        assertState(start, state, 1e-8);
+    }
+
+    @Test
+    public void hyperbolicOrbitIsConsistent() {
+        double r = Simulation.AU;
+        double[] start = {r, 0, 0, -2e4, 6e4, 0};
+        double[] full = start.clone();
+        KeplerPropagator.propagate(MU, full, 3e7);
+        double[] halves = start.clone();
+        KeplerPropagator.propagate(MU, halves, 1.5e7);
+        KeplerPropagator.propagate(MU, halves, 1.5e7);
+        assertState(full, halves, 1e-10);
+        assertEquals(energy(MU, start), energy(MU, full), 1e-10 * Math.abs(energy(MU, start)));
+        assertEquals(angularMomentum(start), angularMomentum(full), 1e-10 * Math.abs(angularMomentum(start)));
+
+        double[] back = full.clone();
+        KeplerPropagator.propagate(MU, back, -3e7);
+        assertState(start, back, 1e-8);
+    }
+
+    // Laguerre's method stops without meeting its convergence criterion for this strongly
+    // hyperbolic orbit over a long time (found by a random search), so Kepler's equation is
+    // solved by bisection. The result has to be as consistent as a converged one.
+    @Test
+    public void notConvergingCaseIsSolvedByBisection() {
+        double mu = 1.1162223455569102E20;
+        double[] start = {7.368293161581573E13, 0, 0, -11829.891859576792, -526.1177058187474, -76.53216303377171};
+        double dt = 2.509999304906629E14;
+        double[] full = start.clone();
+        KeplerPropagator.propagate(mu, full, dt);
+        double[] halves = start.clone();
+        KeplerPropagator.propagate(mu, halves, dt / 2);
+        KeplerPropagator.propagate(mu, halves, dt / 2);
+        assertState(full, halves, 1e-10);
+        assertEquals(energy(mu, start), energy(mu, full), 1e-10 * Math.abs(energy(mu, start)));
+    }
+
+    @Test
+    public void nonFiniteStateIsRejected() {
+        double[] state = {Simulation.AU, 0, 0, Double.NaN, 3e4, 0};
+        assertThrows(ArithmeticException.class, () -> KeplerPropagator.propagate(MU, state, 86400));
+    }
+}
@@ -0,0 +1,64 @@
+package cosmicsystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+// Checks that a simulation step ('SimulationRunner.step', as in the loop of 'Simulation') does
+// not allocate any objects, by comparing the number of bytes allocated by the current thread
+// before and after a number of steps. Both the step on the 'Body' objects and the step on a
+// packed store are checked, with and without collision detection.
+public class SimulationStepAllocationTest {
+
+    private static final int WARMUP_STEPS = 20000;
+    private static final int STEPS = 1000;
+
+    private static long allocatedBytes(com.sun.management.ThreadMXBean threads) {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void assertNoAllocation(com.sun.management.ThreadMXBean threads, SimulationRunner runner, String name) {
+        // let the JIT compile the step before measuring.
+        for (int i = 0; i < WARMUP_STEPS; i++) {
+            runner.step();
+        }
+        // the measurement itself may allocate a little, so it is subtracted.
+        long before = allocatedBytes(threads);
+        long overhead = allocatedBytes(threads) - before;
+        before = allocatedBytes(threads);
+        for (int i = 0; i < STEPS; i++) {
+            runner.step();
+        }
+        long allocated = allocatedBytes(threads) - before - overhead;
+        assertEquals(0, allocated, "bytes allocated by " + STEPS + " steps (" + name + ")");
+    }
+
+    @Test
+    public void simulationStepDoesNotAllocate() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        for (boolean collisions : new boolean[] {false, true}) {
+            for (boolean symmetric : new boolean[] {false, true}) {
+                // 'null' stands for the step on the 'Body' objects.
+                for (Integrator integrator : new Integrator[] {null, new SymplecticEulerIntegrator(), new LeapfrogIntegrator()}) {
+                    boolean packed = integrator != null;
+                    ForceEngine engine = new DirectSumForceEngine(symmetric);
+                    Body[] bodies = Simulation.toArray(Simulation.exampleSystem());
+                    SimulationRunner runner = new SimulationRunner(bodies, engine, integrator, 3600, packed);
+                    if (collisions) {
+                        runner.detectCollisions(null);
+                    }
+                    String name = engine + ", " + (packed ? integrator + ", packed" : "Body objects")
+                            + (collisions ? ", collisions" : "");
+                    assertNoAllocation(threads, runner, name);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package cosmicsystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StateFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void savedSystemIsLoadedAgain() throws IOException {
+        ComplexCosmicSystem system = Simulation.exampleSystem();
+        String file = dir.resolve("solar.state").toString();
+        StateFile.save(system, file);
+
+        ComplexCosmicSystem loaded = StateFile.load(file);
+        assertEquals(system.toString(), loaded.toString());
+        assertEquals(system.numberOfBodies(), loaded.numberOfBodies());
+    }
+
+    // Nested far deeper than the call stack would allow with recursion.
+    @Test
+    public void deeplyNestedSystemIsSavedAndLoaded() throws IOException {
+        int depth = 100000;
+        ComplexCosmicSystem system = new ComplexCosmicSystem("s0");
+        system.add(new Body("b", 1, 1, new Vector3(1, 2, 3), new Vector3(0, 0, 0), null));
+        for (int i = 1; i < depth; i++) {
+            ComplexCosmicSystem outer = new ComplexCosmicSystem("s" + i);
+            outer.add(system);
+            system = outer;
+        }
+        String file = dir.resolve("deep.state").toString();
+        StateFile.save(system, file);
+
+        ComplexCosmicSystem loaded = StateFile.load(file);
+        assertEquals(1, loaded.numberOfBodies());
+        assertEquals(2, loaded.getMassCenter().getY());
+    }
+
+    @Test
+    public void corruptFileIsRejected() throws IOException {
+        String file = dir.resolve("solar.state").toString();
+        StateFile.save(Simulation.exampleSystem(), file);
+        byte[] bytes = Files.readAllBytes(Path.of(file));
+        bytes[20] ^= 1;
+        Files.write(Path.of(file), bytes);
+
+        assertThrows(StateFileFormatException.class, () -> StateFile.load(file));
+        assertThrows(StateFileNotFoundException.class, () -> StateFile.load(dir.resolve("missing").toString()));
+    }
+}
@@ -0,0 +1,52 @@
+package cosmicsystem;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class WisdomHolmanIntegratorTest {
+
+    private static final double DAY = 86400;
+
+    // Kinetic plus potential energy of all bodies of 'store'.
+    private static double energy(BodyStore store) {
+        double e = 0;
+        for (int i = 0; i < store.n; i++) {
+            e += 0.5 * store.mass[i] * (store.vx[i] * store.vx[i] + store.vy[i] * store.vy[i] + store.vz[i] * store.vz[i]);
+            for (int j = i + 1; j < store.n; j++) {
+                double dx = store.x[j] - store.x[i], dy = store.y[j] - store.y[i], dz = store.z[j] - store.z[i];
+                e -= Simulation.G * store.mass[i] * store.mass[j] / Math.sqrt(dx * dx + dy * dy + dz * dz);
+            }
+        }
+        return e;
+    }
+
+    // Steps of two days over 20 years (inner planets, Mercury has a period of 88 days).
+    @Test
+    public void energyErrorStaysSmall() {
+        BodyStore store = new BodyStore(Simulation.exampleSystem());
+        Integrator integrator = new WisdomHolmanIntegrator();
+        ForceEngine engine = new DirectSumForceEngine();
+        double e0 = energy(store), max = 0;
+        for (int k = 0; k < 20 * 365 / 2; k++) {
+            integrator.step(store, engine, 2 * DAY);
+            max = Math.max(max, Math.abs((energy(store) - e0) / e0));
+        }
+        assertTrue(max < 1e-7, "relative energy error " + max);
+    }
+
+    // The interactions are summed directly, so an approximating engine does not change the result.
+    @Test
+    public void engineIsNotUsed() {
+        BodyStore direct = new BodyStore(Simulation.exampleSystem());
+        BodyStore approximated = new BodyStore(Simulation.exampleSystem());
+        Integrator a = new WisdomHolmanIntegrator(), b = new WisdomHolmanIntegrator();
+        for (int k = 0; k < 100; k++) {
+            a.step(direct, new DirectSumForceEngine(), 2 * DAY);
+            b.step(approximated, new BarnesHutForceEngine(2), 2 * DAY);
+        }
+        assertArrayEquals(direct.x, approximated.x);
+        assertArrayEquals(direct.vy, approximated.vy);
+    }
+}